@@ -0,0 +1,7 @@
+package com.example.solid.dip;
+
+import java.util.concurrent.CompletableFuture;
+
+interface AsyncDatabase {
+    CompletableFuture<Void> saveOrderAsync();
+}
@@ -0,0 +1,25 @@
+package com.example.solid.dip;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+class AsyncDatabaseAdapter implements AsyncDatabase {
+    private final Database database;
+    private final Executor executor;
+
+    AsyncDatabaseAdapter(Database database, Executor executor) {
+        if (database == null) {
+            throw new IllegalArgumentException("La base de datos no puede ser null");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("El ejecutor no puede ser null");
+        }
+        this.database = database;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Void> saveOrderAsync() {
+        return CompletableFuture.runAsync(database::saveOrder, executor);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.solid.dip;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+class AsyncOrderProcessor {
+    private final AsyncDatabase database;
+    private final int maxInFlight;
+    private final Queue<CompletableFuture<Void>> waiting = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger drainers = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    AsyncOrderProcessor(AsyncDatabase database, int maxInFlight) {
+        if (database == null) {
+            throw new IllegalArgumentException("La base de datos no puede ser null");
+        }
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("Debe admitirse al menos un pedido en vuelo");
+        }
+        this.database = database;
+        this.maxInFlight = maxInFlight;
+    }
+
+    CompletableFuture<Void> processOrder() {
+        CompletableFuture<Void> order = new CompletableFuture<>();
+        queued.incrementAndGet();
+        waiting.add(order);
+        drain();
+        return order;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    int queued() {
+        return queued.get();
+    }
+
+    int maxInFlight() {
+        return maxInFlight;
+    }
+
+    long completedCount() {
+        return completed.sum();
+    }
+
+    long failedCount() {
+        return failed.sum();
+    }
+
+    private void drain() {
+        if (drainers.getAndIncrement() != 0) {
+            return;
+        }
+        do {
+            while (!waiting.isEmpty() && tryAcquire()) {
+                CompletableFuture<Void> order = waiting.poll();
+                if (order == null) {
+                    inFlight.decrementAndGet();
+                    break;
+                }
+                queued.decrementAndGet();
+                start(order);
+            }
+        } while (drainers.decrementAndGet() != 0);
+    }
+
+    private boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= maxInFlight) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private void start(CompletableFuture<Void> order) {
+        CompletableFuture<Void> save;
+        try {
+            save = database.saveOrderAsync();
+        } catch (RuntimeException e) {
+            save = CompletableFuture.failedFuture(e);
+        }
+        save.whenComplete((ignored, error) -> {
+            inFlight.decrementAndGet();
+            if (error == null) {
+                completed.increment();
+                order.complete(null);
+            } else {
+                failed.increment();
+                order.completeExceptionally(error);
+            }
+            drain();
+        });
+    }
+}
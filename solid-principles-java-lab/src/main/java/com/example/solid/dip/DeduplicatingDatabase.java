@@ -0,0 +1,194 @@
+package com.example.solid.dip;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+class DeduplicatingDatabase implements OrderStore {
+    private final OrderStore delegate;
+    private final int generationCapacity;
+    private final int bitCount;
+    private final int hashCount;
+    private final Set<OrderKey> inFlight = new HashSet<>();
+
+    private long[] currentBits;
+    private long[] previousBits;
+    private Set<OrderKey> currentKeys;
+    private Set<OrderKey> previousKeys;
+
+    private long saved;
+    private long duplicates;
+    private long falsePositives;
+    private long rotations;
+
+    DeduplicatingDatabase(OrderStore delegate, int generationCapacity, double falsePositiveRate) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("La base de datos no puede ser null");
+        }
+        if (generationCapacity <= 0) {
+            throw new IllegalArgumentException("La capacidad por generación debe ser mayor que cero");
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("La tasa de falsos positivos debe estar entre 0 y 1");
+        }
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-generationCapacity * Math.log(falsePositiveRate) / (ln2 * ln2));
+        if (bits > Integer.MAX_VALUE - 63) {
+            throw new IllegalArgumentException("El filtro excede la memoria admitida");
+        }
+        this.delegate = delegate;
+        this.generationCapacity = generationCapacity;
+        this.bitCount = (int) Math.max(64, bits);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / generationCapacity * ln2));
+        this.currentBits = new long[(bitCount + 63) >>> 6];
+        this.previousBits = new long[currentBits.length];
+        this.currentKeys = new HashSet<>();
+        this.previousKeys = new HashSet<>();
+    }
+
+    @Override
+    public void saveOrder() {
+        delegate.saveOrder();
+    }
+
+    @Override
+    public void saveOrder(long orderId) {
+        saveOrder(OrderKey.of(orderId));
+    }
+
+    @Override
+    public void saveOrder(OrderKey key) {
+        if (key == null) {
+            throw new IllegalArgumentException("La clave del pedido no puede ser null");
+        }
+        save(key, () -> delegate.saveOrder(key));
+    }
+
+    @Override
+    public void saveOrder(Order order) {
+        if (order == null) {
+            throw new IllegalArgumentException("El pedido no puede ser null");
+        }
+        save(order.getKey(), () -> delegate.saveOrder(order));
+    }
+
+    @Override
+    public Order loadOrder(OrderKey key) {
+        return delegate.loadOrder(key);
+    }
+
+    private void save(OrderKey key, Runnable write) {
+        if (!claim(key)) {
+            return;
+        }
+        boolean stored = false;
+        try {
+            write.run();
+            stored = true;
+        } finally {
+            settle(key, stored);
+        }
+    }
+
+    private synchronized boolean claim(OrderKey key) {
+        boolean interrupted = false;
+        while (inFlight.contains(key)) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        long fingerprint = key.fingerprint();
+        if (mightContain(currentBits, fingerprint) || mightContain(previousBits, fingerprint)) {
+            if (currentKeys.contains(key) || previousKeys.contains(key)) {
+                duplicates++;
+                return false;
+            }
+            falsePositives++;
+        }
+        inFlight.add(key);
+        return true;
+    }
+
+    private synchronized void settle(OrderKey key, boolean stored) {
+        inFlight.remove(key);
+        if (stored) {
+            if (currentKeys.size() == generationCapacity) {
+                rotate();
+            }
+            setBits(currentBits, key.fingerprint());
+            currentKeys.add(key);
+            saved++;
+        }
+        notifyAll();
+    }
+
+    private void rotate() {
+        long[] recycled = previousBits;
+        Arrays.fill(recycled, 0);
+        previousBits = currentBits;
+        currentBits = recycled;
+        Set<OrderKey> recycledKeys = previousKeys;
+        recycledKeys.clear();
+        previousKeys = currentKeys;
+        currentKeys = recycledKeys;
+        rotations++;
+    }
+
+    private boolean mightContain(long[] bits, long fingerprint) {
+        long h1 = fingerprint;
+        long h2 = (fingerprint >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (int) Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void setBits(long[] bits, long fingerprint) {
+        long h1 = fingerprint;
+        long h2 = (fingerprint >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (int) Long.remainderUnsigned(h1 + i * h2, bitCount);
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    int bitCount() {
+        return bitCount;
+    }
+
+    int hashCount() {
+        return hashCount;
+    }
+
+    int generationCapacity() {
+        return generationCapacity;
+    }
+
+    synchronized long savedCount() {
+        return saved;
+    }
+
+    synchronized long duplicateCount() {
+        return duplicates;
+    }
+
+    synchronized long falsePositiveCount() {
+        return falsePositives;
+    }
+
+    synchronized long rotationCount() {
+        return rotations;
+    }
+
+    synchronized int trackedKeys() {
+        return currentKeys.size() + previousKeys.size();
+    }
+}
@@ -2,13 +2,34 @@ package com.example.solid.dip;
 
 interface Database {
     void saveOrder();
+
+    default void saveOrders(int count) {
+        for (int i = 0; i < count; i++) {
+            saveOrder();
+        }
+    }
 }
 
-class MySQLDatabase implements Database {
+class MySQLDatabase implements KeyedDatabase {
     @Override
     public void saveOrder() {
         System.out.println("Guardando pedido en MySQL...");
     }
+
+    @Override
+    public void saveOrder(long orderId) {
+        System.out.println("Guardando pedido " + orderId + " en MySQL...");
+    }
+
+    @Override
+    public void saveOrder(Order order) {
+        System.out.println("Guardando pedido " + order.getKey() + " de " + order.getCustomer() + " en MySQL...");
+    }
+
+    @Override
+    public void saveOrders(int count) {
+        System.out.println("Guardando " + count + " pedidos en MySQL...");
+    }
 }
 
 class OrderProcessor {
@@ -27,6 +48,31 @@ class OrderProcessor {
     }
 }
 
+class KeyedOrderProcessor extends OrderProcessor {
+    private final KeyedDatabase database;
+
+    public KeyedOrderProcessor(KeyedDatabase database) {
+        super(database);
+        this.database = database;
+    }
+
+    public void processOrder(OrderKey key) {
+        if (key == null) {
+            throw new IllegalArgumentException("La clave del pedido no puede ser null");
+        }
+        System.out.println("Procesando pedido " + key + "...");
+        database.saveOrder(key);
+    }
+
+    public void processOrder(Order order) {
+        if (order == null) {
+            throw new IllegalArgumentException("El pedido no puede ser null");
+        }
+        System.out.println("Procesando pedido " + order.getKey() + "...");
+        database.saveOrder(order);
+    }
+}
+
 public class GoodExample {
     public static void main(String[] args) {
         Database database = new MySQLDatabase();
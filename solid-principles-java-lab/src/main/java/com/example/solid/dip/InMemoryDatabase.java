@@ -0,0 +1,189 @@
+package com.example.solid.dip;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+class InMemoryDatabase implements OrderStore {
+    private final long roundTripNanos;
+    private final Set<Long> orders = ConcurrentHashMap.newKeySet();
+    private final Map<OrderKey, Order> payloads = new ConcurrentHashMap<>();
+    private final AtomicLong nextOrderId = new AtomicLong();
+    private final AtomicLong roundTrips = new AtomicLong();
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final AtomicInteger activeWrites = new AtomicInteger();
+    private final AtomicInteger peakActiveWrites = new AtomicInteger();
+
+    InMemoryDatabase() {
+        this(0, TimeUnit.NANOSECONDS);
+    }
+
+    InMemoryDatabase(long roundTrip, TimeUnit unit) {
+        if (unit == null || roundTrip < 0) {
+            throw new IllegalArgumentException("La latencia simulada no puede ser negativa");
+        }
+        this.roundTripNanos = unit.toNanos(roundTrip);
+    }
+
+    OrderStore openSession() {
+        sessions.incrementAndGet();
+        return new Session();
+    }
+
+    @Override
+    public void saveOrder() {
+        beginWrite();
+        try {
+            addAnonymousOrder();
+        } finally {
+            activeWrites.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void saveOrder(long orderId) {
+        beginWrite();
+        try {
+            orders.add(orderId);
+            advancePast(orderId);
+        } finally {
+            activeWrites.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void saveOrders(int count) {
+        beginWrite();
+        try {
+            for (int i = 0; i < count; i++) {
+                addAnonymousOrder();
+            }
+        } finally {
+            activeWrites.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void saveOrders(long[] orderIds, int offset, int length) {
+        beginWrite();
+        try {
+            long maxOrderId = Long.MIN_VALUE;
+            for (int i = offset; i < offset + length; i++) {
+                orders.add(orderIds[i]);
+                maxOrderId = Math.max(maxOrderId, orderIds[i]);
+            }
+            advancePast(maxOrderId);
+        } finally {
+            activeWrites.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void saveOrder(Order order) {
+        if (order == null) {
+            throw new IllegalArgumentException("El pedido no puede ser null");
+        }
+        beginWrite();
+        try {
+            orders.add(order.getKey().getOrderId());
+            advancePast(order.getKey().getOrderId());
+            payloads.put(order.getKey(), order);
+        } finally {
+            activeWrites.decrementAndGet();
+        }
+    }
+
+    @Override
+    public Order loadOrder(OrderKey key) {
+        if (key == null) {
+            throw new IllegalArgumentException("La clave del pedido no puede ser null");
+        }
+        roundTrip();
+        return payloads.get(key);
+    }
+
+    boolean contains(long orderId) {
+        return orders.contains(orderId);
+    }
+
+    int size() {
+        return orders.size();
+    }
+
+    long roundTrips() {
+        return roundTrips.get();
+    }
+
+    int sessionCount() {
+        return sessions.get();
+    }
+
+    int peakConcurrentWrites() {
+        return peakActiveWrites.get();
+    }
+
+    private void addAnonymousOrder() {
+        long orderId;
+        do {
+            orderId = nextOrderId.incrementAndGet();
+        } while (!orders.add(orderId));
+    }
+
+    private void advancePast(long orderId) {
+        if (orderId > nextOrderId.get()) {
+            nextOrderId.accumulateAndGet(orderId, Math::max);
+        }
+    }
+
+    private void beginWrite() {
+        int active = activeWrites.incrementAndGet();
+        int peak = peakActiveWrites.get();
+        while (active > peak && !peakActiveWrites.compareAndSet(peak, active)) {
+            peak = peakActiveWrites.get();
+        }
+        roundTrip();
+    }
+
+    private void roundTrip() {
+        roundTrips.incrementAndGet();
+        if (roundTripNanos > 0) {
+            LockSupport.parkNanos(roundTripNanos);
+        }
+    }
+
+    private final class Session implements OrderStore {
+        @Override
+        public void saveOrder() {
+            InMemoryDatabase.this.saveOrder();
+        }
+
+        @Override
+        public void saveOrder(long orderId) {
+            InMemoryDatabase.this.saveOrder(orderId);
+        }
+
+        @Override
+        public void saveOrders(int count) {
+            InMemoryDatabase.this.saveOrders(count);
+        }
+
+        @Override
+        public void saveOrders(long[] orderIds, int offset, int length) {
+            InMemoryDatabase.this.saveOrders(orderIds, offset, length);
+        }
+
+        @Override
+        public void saveOrder(Order order) {
+            InMemoryDatabase.this.saveOrder(order);
+        }
+
+        @Override
+        public Order loadOrder(OrderKey key) {
+            return InMemoryDatabase.this.loadOrder(key);
+        }
+    }
+}
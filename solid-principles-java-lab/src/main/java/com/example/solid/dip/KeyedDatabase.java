@@ -0,0 +1,17 @@
+package com.example.solid.dip;
+
+interface KeyedDatabase extends Database {
+    void saveOrder(long orderId);
+
+    void saveOrder(Order order);
+
+    default void saveOrder(OrderKey key) {
+        saveOrder(key.getOrderId());
+    }
+
+    default void saveOrders(long[] orderIds, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            saveOrder(orderIds[i]);
+        }
+    }
+}
@@ -0,0 +1,501 @@
+package com.example.solid.dip;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.BufferUnderflowException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+class LogStructuredDatabase implements OrderStore, Closeable {
+    static final int HEADER_SIZE = Integer.BYTES + Long.BYTES;
+    static final int TRAILER_SIZE = Integer.BYTES;
+    static final int MAX_PAYLOAD_BYTES = 1 << 20;
+
+    private static final String LOG_FILE = "orders.log";
+    private static final String COMPACTION_FILE = "orders.log.compact";
+    private static final byte[] EMPTY = new byte[0];
+    private static final long EMPTY_SLOT = -1;
+    private static final int ORDER_MAGIC = 0x4F524431;
+
+    private final Path directory;
+    private final long compactionThresholdBytes;
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer writeBuffer = ByteBuffer.allocate(4_096);
+
+    private FileChannel channel;
+    private long logBytes;
+    private long liveBytes;
+    private long nextOrderId = 1;
+    private long compactions;
+    private long corruptRecords;
+
+    private long[] indexIds = new long[64];
+    private long[] indexOffsets = new long[64];
+    private int[] indexLengths = new int[64];
+    private int indexSize;
+
+    private LogStructuredDatabase(Path directory, long compactionThresholdBytes) {
+        this.directory = directory;
+        this.compactionThresholdBytes = compactionThresholdBytes;
+        Arrays.fill(indexIds, EMPTY_SLOT);
+    }
+
+    static LogStructuredDatabase open(Path directory, long compactionThresholdBytes) throws IOException {
+        if (directory == null) {
+            throw new IllegalArgumentException("El directorio del almacén no puede ser null");
+        }
+        if (compactionThresholdBytes <= 0) {
+            throw new IllegalArgumentException("El umbral de compactación debe ser mayor que cero");
+        }
+        Files.createDirectories(directory);
+        Files.deleteIfExists(directory.resolve(COMPACTION_FILE));
+        LogStructuredDatabase database = new LogStructuredDatabase(directory, compactionThresholdBytes);
+        database.recover();
+        return database;
+    }
+
+    private void recover() throws IOException {
+        channel = FileChannel.open(directory.resolve(LOG_FILE),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        long offset = 0;
+        long size = channel.size();
+        while (offset + HEADER_SIZE + TRAILER_SIZE <= size) {
+            header.clear();
+            readFully(header, offset);
+            int length = header.getInt(0);
+            long orderId = header.getLong(Integer.BYTES);
+            if (length < 0 || length > MAX_PAYLOAD_BYTES || offset + recordSize(length) > size) {
+                break;
+            }
+            if (readRecord(offset) == null) {
+                break;
+            }
+            index(orderId, offset, length);
+            nextOrderId = Math.max(nextOrderId, orderId + 1);
+            offset += recordSize(length);
+        }
+        if (offset < size) {
+            channel.truncate(offset);
+            channel.force(true);
+        }
+        channel.position(offset);
+        logBytes = offset;
+    }
+
+    @Override
+    public synchronized void saveOrder() {
+        saveOrder(nextOrderId, EMPTY);
+    }
+
+    @Override
+    public synchronized void saveOrder(long orderId) {
+        saveOrder(orderId, EMPTY);
+    }
+
+    @Override
+    public synchronized void saveOrders(int count) {
+        if (count <= 0) {
+            return;
+        }
+        ensureOpen();
+        writeBuffer.clear();
+        for (int i = 0; i < count; i++) {
+            encode(nextOrderId++, EMPTY);
+        }
+        long offset = logBytes;
+        append();
+        for (long orderId = nextOrderId - count; orderId < nextOrderId; orderId++) {
+            index(orderId, offset, 0);
+            offset += recordSize(0);
+        }
+        compactIfNeeded();
+    }
+
+    @Override
+    public synchronized void saveOrders(long[] orderIds, int offset, int length) {
+        if (length <= 0) {
+            return;
+        }
+        for (int i = offset; i < offset + length; i++) {
+            if (orderIds[i] < 0) {
+                throw new IllegalArgumentException("El identificador del pedido no puede ser negativo");
+            }
+        }
+        ensureOpen();
+        writeBuffer.clear();
+        for (int i = offset; i < offset + length; i++) {
+            encode(orderIds[i], EMPTY);
+        }
+        long position = logBytes;
+        append();
+        for (int i = offset; i < offset + length; i++) {
+            index(orderIds[i], position, 0);
+            nextOrderId = Math.max(nextOrderId, orderIds[i] + 1);
+            position += recordSize(0);
+        }
+        compactIfNeeded();
+    }
+
+    @Override
+    public synchronized void saveOrder(Order order) {
+        if (order == null) {
+            throw new IllegalArgumentException("El pedido no puede ser null");
+        }
+        long orderId = order.getKey().getOrderId();
+        String source = find(orderId) >= 0 ? sourceOf(readOrder(orderId)) : null;
+        if (source != null && !source.equals(order.getKey().getSource())) {
+            throw new IllegalArgumentException("El pedido " + orderId + " ya pertenece al origen " + source);
+        }
+        saveOrder(orderId, encodeOrder(order));
+    }
+
+    @Override
+    public Order loadOrder(OrderKey key) {
+        if (key == null) {
+            throw new IllegalArgumentException("La clave del pedido no puede ser null");
+        }
+        byte[] payload = readOrder(key.getOrderId());
+        if (payload == null || payload.length == 0) {
+            return null;
+        }
+        Order order = decodeOrder(key.getOrderId(), payload);
+        return order.getKey().equals(key) ? order : null;
+    }
+
+    synchronized void saveOrder(long orderId, byte[] payload) {
+        if (orderId < 0) {
+            throw new IllegalArgumentException("El identificador del pedido no puede ser negativo");
+        }
+        if (payload == null) {
+            throw new IllegalArgumentException("El contenido del pedido no puede ser null");
+        }
+        if (payload.length > MAX_PAYLOAD_BYTES) {
+            throw new IllegalArgumentException("El pedido excede " + MAX_PAYLOAD_BYTES + " bytes");
+        }
+        ensureOpen();
+        writeBuffer.clear();
+        encode(orderId, payload);
+        long offset = logBytes;
+        append();
+        index(orderId, offset, payload.length);
+        nextOrderId = Math.max(nextOrderId, orderId + 1);
+        compactIfNeeded();
+    }
+
+    synchronized byte[] readOrder(long orderId) {
+        ensureOpen();
+        int slot = find(orderId);
+        if (slot < 0) {
+            return null;
+        }
+        byte[] payload;
+        try {
+            payload = readRecord(indexOffsets[slot]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (payload == null) {
+            throw new IllegalStateException("El registro del pedido " + orderId + " está corrupto");
+        }
+        return payload;
+    }
+
+    synchronized boolean contains(long orderId) {
+        return find(orderId) >= 0;
+    }
+
+    synchronized int size() {
+        return indexSize;
+    }
+
+    synchronized long logBytes() {
+        return logBytes;
+    }
+
+    synchronized long liveBytes() {
+        return liveBytes;
+    }
+
+    synchronized long compactionCount() {
+        return compactions;
+    }
+
+    synchronized long corruptRecordCount() {
+        return corruptRecords;
+    }
+
+    synchronized void sync() {
+        ensureOpen();
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    synchronized void compact() {
+        ensureOpen();
+        Path target = directory.resolve(COMPACTION_FILE);
+        long[] ids = new long[indexSize];
+        long[] offsets = new long[indexSize];
+        int[] lengths = new int[indexSize];
+        int live = 0;
+        for (int slot = 0; slot < indexIds.length; slot++) {
+            if (indexIds[slot] != EMPTY_SLOT) {
+                ids[live] = indexIds[slot];
+                offsets[live++] = indexOffsets[slot];
+            }
+        }
+        FileChannel compacted = null;
+        int kept = 0;
+        int corrupt = 0;
+        long position = 0;
+        try {
+            compacted = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            for (int i = 0; i < live; i++) {
+                byte[] payload = readRecord(offsets[i]);
+                if (payload == null) {
+                    corrupt++;
+                    continue;
+                }
+                writeBuffer.clear();
+                encode(ids[i], payload);
+                writeBuffer.flip();
+                while (writeBuffer.hasRemaining()) {
+                    compacted.write(writeBuffer);
+                }
+                ids[kept] = ids[i];
+                offsets[kept] = position;
+                lengths[kept++] = payload.length;
+                position += recordSize(payload.length);
+            }
+            compacted.force(true);
+            Files.move(target, directory.resolve(LOG_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            if (compacted != null) {
+                try {
+                    compacted.close();
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw new UncheckedIOException(e);
+        }
+        FileChannel previous = channel;
+        channel = compacted;
+        logBytes = position;
+        Arrays.fill(indexIds, EMPTY_SLOT);
+        indexSize = 0;
+        liveBytes = 0;
+        for (int i = 0; i < kept; i++) {
+            index(ids[i], offsets[i], lengths[i]);
+        }
+        corruptRecords += corrupt;
+        compactions++;
+        try {
+            previous.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        channel.force(true);
+        channel.close();
+        channel = null;
+    }
+
+    private void compactIfNeeded() {
+        long garbage = logBytes - liveBytes;
+        if (garbage >= compactionThresholdBytes && garbage >= liveBytes) {
+            compact();
+        }
+    }
+
+    private static byte[] encodeOrder(Order order) {
+        byte[] source = order.getKey().getSource().getBytes(StandardCharsets.UTF_8);
+        byte[] customer = order.getCustomer().getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(Integer.BYTES * 3 + source.length + customer.length + Long.BYTES)
+            .putInt(ORDER_MAGIC)
+            .putInt(source.length).put(source)
+            .putInt(customer.length).put(customer)
+            .putLong(order.getTotalCents())
+            .array();
+    }
+
+    private static Order decodeOrder(long orderId, byte[] payload) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(payload);
+            if (buffer.getInt() != ORDER_MAGIC) {
+                throw new IllegalStateException("El registro " + orderId + " no contiene un pedido");
+            }
+            String source = readString(buffer);
+            String customer = readString(buffer);
+            return new Order(new OrderKey(source, orderId), customer, buffer.getLong());
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IllegalStateException("El registro " + orderId + " no contiene un pedido", e);
+        }
+    }
+
+    private static String sourceOf(byte[] payload) {
+        if (payload.length < Integer.BYTES) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        if (buffer.getInt() != ORDER_MAGIC) {
+            return null;
+        }
+        try {
+            return readString(buffer);
+        } catch (BufferUnderflowException e) {
+            return null;
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void encode(long orderId, byte[] payload) {
+        int size = recordSize(payload.length);
+        if (writeBuffer.remaining() < size) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(writeBuffer.capacity() * 2, writeBuffer.position() + size));
+            writeBuffer.flip();
+            larger.put(writeBuffer);
+            writeBuffer = larger;
+        }
+        int start = writeBuffer.position();
+        writeBuffer.putInt(payload.length).putLong(orderId).put(payload);
+        crc.reset();
+        crc.update(writeBuffer.array(), start, HEADER_SIZE + payload.length);
+        writeBuffer.putInt((int) crc.getValue());
+    }
+
+    private void append() {
+        writeBuffer.flip();
+        try {
+            while (writeBuffer.hasRemaining()) {
+                logBytes += channel.write(writeBuffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] readRecord(long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(header, offset);
+        int length = header.getInt(0);
+        if (length < 0 || length > MAX_PAYLOAD_BYTES) {
+            return null;
+        }
+        ByteBuffer record = ByteBuffer.allocate(recordSize(length));
+        readFully(record, offset);
+        crc.reset();
+        crc.update(record.array(), 0, HEADER_SIZE + length);
+        if ((int) crc.getValue() != record.getInt(HEADER_SIZE + length)) {
+            return null;
+        }
+        return Arrays.copyOfRange(record.array(), HEADER_SIZE, HEADER_SIZE + length);
+    }
+
+    private void readFully(ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Registro truncado en la posición " + offset);
+            }
+        }
+    }
+
+    private void index(long orderId, long offset, int payloadLength) {
+        int slot = find(orderId);
+        if (slot >= 0) {
+            liveBytes -= recordSize(indexLengths[slot]);
+        } else {
+            if ((indexSize + 1) * 2 > indexIds.length) {
+                rehash();
+            }
+            slot = insertionSlot(orderId);
+            indexIds[slot] = orderId;
+            indexSize++;
+        }
+        indexOffsets[slot] = offset;
+        indexLengths[slot] = payloadLength;
+        liveBytes += recordSize(payloadLength);
+    }
+
+    private int find(long orderId) {
+        int mask = indexIds.length - 1;
+        for (int slot = mix(orderId) & mask; ; slot = (slot + 1) & mask) {
+            if (indexIds[slot] == orderId) {
+                return slot;
+            }
+            if (indexIds[slot] == EMPTY_SLOT) {
+                return -slot - 1;
+            }
+        }
+    }
+
+    private int insertionSlot(long orderId) {
+        int mask = indexIds.length - 1;
+        int slot = mix(orderId) & mask;
+        while (indexIds[slot] != EMPTY_SLOT) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        long[] oldIds = indexIds;
+        long[] oldOffsets = indexOffsets;
+        int[] oldLengths = indexLengths;
+        indexIds = new long[oldIds.length * 2];
+        indexOffsets = new long[oldIds.length * 2];
+        indexLengths = new int[oldIds.length * 2];
+        Arrays.fill(indexIds, EMPTY_SLOT);
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldIds[i] != EMPTY_SLOT) {
+                int slot = insertionSlot(oldIds[i]);
+                indexIds[slot] = oldIds[i];
+                indexOffsets[slot] = oldOffsets[i];
+                indexLengths[slot] = oldLengths[i];
+            }
+        }
+    }
+
+    private static int recordSize(int payloadLength) {
+        return HEADER_SIZE + payloadLength + TRAILER_SIZE;
+    }
+
+    private static int mix(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private void ensureOpen() {
+        if (channel == null) {
+            throw new IllegalStateException("El almacén de pedidos está cerrado");
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.solid.dip;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+class NearCacheDatabase implements OrderStore {
+    private static final int SKETCH_DEPTH = 4;
+    private static final int MAX_FREQUENCY = 15;
+    private static final long[] SKETCH_SEEDS = {
+        0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+    };
+
+    private final OrderStore delegate;
+    private final int maximumSize;
+    private final int windowSize;
+    private final LinkedHashMap<OrderKey, Order> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<OrderKey, Order> main = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<OrderKey, Object> loading = new HashMap<>();
+    private final Map<Long, Set<OrderKey>> keysById = new HashMap<>();
+
+    private final int[][] sketch;
+    private final int sketchMask;
+    private final int sampleSize;
+    private int sampleCount;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long rejections;
+    private long invalidations;
+
+    NearCacheDatabase(OrderStore delegate, int maximumSize) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("La base de datos no puede ser null");
+        }
+        if (maximumSize <= 1) {
+            throw new IllegalArgumentException("La caché debe admitir al menos dos pedidos");
+        }
+        this.delegate = delegate;
+        this.maximumSize = maximumSize;
+        this.windowSize = Math.max(1, maximumSize / 100);
+        int width = Integer.highestOneBit(Math.max(16, maximumSize * 2 - 1)) << 1;
+        this.sketch = new int[SKETCH_DEPTH][width];
+        this.sketchMask = width - 1;
+        this.sampleSize = maximumSize * 10;
+    }
+
+    @Override
+    public Order loadOrder(OrderKey key) {
+        if (key == null) {
+            throw new IllegalArgumentException("La clave del pedido no puede ser null");
+        }
+        Object token = new Object();
+        synchronized (this) {
+            recordAccess(key);
+            Order cached = window.get(key);
+            if (cached == null) {
+                cached = main.get(key);
+            }
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+            loading.put(key, token);
+            track(key);
+        }
+        Order loaded = null;
+        try {
+            loaded = delegate.loadOrder(key);
+            return loaded;
+        } finally {
+            synchronized (this) {
+                if (loading.remove(key, token) && !window.containsKey(key) && !main.containsKey(key)) {
+                    if (loaded != null) {
+                        admit(key, loaded);
+                    } else {
+                        untrack(key);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void saveOrder() {
+        delegate.saveOrder();
+    }
+
+    @Override
+    public void saveOrder(long orderId) {
+        delegate.saveOrder(orderId);
+        invalidate(orderId);
+    }
+
+    @Override
+    public void saveOrders(int count) {
+        delegate.saveOrders(count);
+    }
+
+    @Override
+    public void saveOrders(long[] orderIds, int offset, int length) {
+        delegate.saveOrders(orderIds, offset, length);
+        for (int i = offset; i < offset + length; i++) {
+            invalidate(orderIds[i]);
+        }
+    }
+
+    @Override
+    public void saveOrder(OrderKey key) {
+        delegate.saveOrder(key);
+        invalidate(key);
+    }
+
+    @Override
+    public void saveOrder(Order order) {
+        if (order == null) {
+            throw new IllegalArgumentException("El pedido no puede ser null");
+        }
+        delegate.saveOrder(order);
+        invalidate(order.getKey());
+    }
+
+    synchronized void invalidate(OrderKey key) {
+        invalidations++;
+        loading.remove(key);
+        if (window.remove(key) == null) {
+            main.remove(key);
+        }
+        untrack(key);
+    }
+
+    synchronized void invalidate(long orderId) {
+        invalidations++;
+        Set<OrderKey> keys = keysById.remove(orderId);
+        if (keys == null) {
+            return;
+        }
+        for (OrderKey key : keys) {
+            loading.remove(key);
+            if (window.remove(key) == null) {
+                main.remove(key);
+            }
+        }
+    }
+
+    private void track(OrderKey key) {
+        keysById.computeIfAbsent(key.getOrderId(), orderId -> new HashSet<>(2)).add(key);
+    }
+
+    private void untrack(OrderKey key) {
+        Set<OrderKey> keys = keysById.get(key.getOrderId());
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            keysById.remove(key.getOrderId());
+        }
+    }
+
+    private void admit(OrderKey key, Order order) {
+        window.put(key, order);
+        if (window.size() <= windowSize) {
+            return;
+        }
+        Iterator<Map.Entry<OrderKey, Order>> oldest = window.entrySet().iterator();
+        Map.Entry<OrderKey, Order> candidate = oldest.next();
+        oldest.remove();
+        if (main.size() < maximumSize - windowSize) {
+            main.put(candidate.getKey(), candidate.getValue());
+            return;
+        }
+        Iterator<OrderKey> lru = main.keySet().iterator();
+        OrderKey victim = lru.next();
+        if (frequency(candidate.getKey()) > frequency(victim)) {
+            lru.remove();
+            untrack(victim);
+            main.put(candidate.getKey(), candidate.getValue());
+        } else {
+            untrack(candidate.getKey());
+            rejections++;
+        }
+        evictions++;
+    }
+
+    private void recordAccess(OrderKey key) {
+        long fingerprint = key.fingerprint();
+        for (int row = 0; row < SKETCH_DEPTH; row++) {
+            int index = index(fingerprint, row);
+            if (sketch[row][index] < MAX_FREQUENCY) {
+                sketch[row][index]++;
+            }
+        }
+        if (++sampleCount == sampleSize) {
+            for (int[] counters : sketch) {
+                for (int i = 0; i < counters.length; i++) {
+                    counters[i] >>>= 1;
+                }
+            }
+            sampleCount /= 2;
+        }
+    }
+
+    private int frequency(OrderKey key) {
+        long fingerprint = key.fingerprint();
+        int frequency = MAX_FREQUENCY;
+        for (int row = 0; row < SKETCH_DEPTH; row++) {
+            frequency = Math.min(frequency, sketch[row][index(fingerprint, row)]);
+        }
+        return frequency;
+    }
+
+    private int index(long fingerprint, int row) {
+        long hash = (fingerprint + SKETCH_SEEDS[row]) * SKETCH_SEEDS[row];
+        return (int) (hash >>> 32) & sketchMask;
+    }
+
+    int maximumSize() {
+        return maximumSize;
+    }
+
+    synchronized int size() {
+        return window.size() + main.size();
+    }
+
+    synchronized int indexedIdCount() {
+        return keysById.size();
+    }
+
+    synchronized long hitCount() {
+        return hits;
+    }
+
+    synchronized long missCount() {
+        return misses;
+    }
+
+    synchronized double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+
+    synchronized long evictionCount() {
+        return evictions;
+    }
+
+    synchronized long rejectionCount() {
+        return rejections;
+    }
+
+    synchronized long invalidationCount() {
+        return invalidations;
+    }
+}
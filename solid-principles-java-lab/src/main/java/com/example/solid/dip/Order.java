@@ -0,0 +1,56 @@
+package com.example.solid.dip;
+
+final class Order {
+    private final OrderKey key;
+    private final String customer;
+    private final long totalCents;
+
+    Order(OrderKey key, String customer, long totalCents) {
+        if (key == null) {
+            throw new IllegalArgumentException("La clave del pedido no puede ser null");
+        }
+        if (customer == null || customer.trim().isEmpty()) {
+            throw new IllegalArgumentException("El cliente no puede estar vacío");
+        }
+        if (totalCents < 0) {
+            throw new IllegalArgumentException("El total no puede ser negativo");
+        }
+        this.key = key;
+        this.customer = customer.trim();
+        this.totalCents = totalCents;
+    }
+
+    OrderKey getKey() {
+        return key;
+    }
+
+    String getCustomer() {
+        return customer;
+    }
+
+    long getTotalCents() {
+        return totalCents;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Order)) {
+            return false;
+        }
+        Order order = (Order) other;
+        return totalCents == order.totalCents && key.equals(order.key) && customer.equals(order.customer);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * key.hashCode() + customer.hashCode()) + Long.hashCode(totalCents);
+    }
+
+    @Override
+    public String toString() {
+        return "Pedido " + key + " de " + customer + " por " + totalCents + " centavos";
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.solid.dip;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+public class OrderBenchmark {
+    private static final int DEFAULT_ORDERS = 200_000;
+    private static final long ROUND_TRIP_NANOS = 20_000;
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        int orderCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ORDERS;
+        PrintStream originalOut = System.out;
+        for (int round = 0; round < 3; round++) {
+            benchmarkWriteBehind(orderCount, originalOut);
+        }
+        for (int round = 0; round < 3; round++) {
+            benchmarkLogStructured(orderCount, originalOut);
+        }
+        for (int round = 0; round < 3; round++) {
+            benchmarkPool(orderCount, originalOut);
+        }
+        for (int round = 0; round < 3; round++) {
+            benchmarkRingBuffer(orderCount, originalOut);
+        }
+        for (int round = 0; round < 3; round++) {
+            benchmarkNearCache(orderCount / 10, originalOut);
+        }
+    }
+
+    static void benchmarkNearCache(int reads, PrintStream out) {
+        InMemoryDatabase backend = new InMemoryDatabase(5, TimeUnit.MICROSECONDS);
+        int catalog = 10_000;
+        for (long orderId = 0; orderId < catalog; orderId++) {
+            backend.saveOrder(new Order(OrderKey.of(orderId), "Cliente " + orderId, orderId));
+        }
+        long[] keys = new long[reads];
+        SplittableRandom random = new java.util.SplittableRandom(7);
+        for (int i = 0; i < reads; i++) {
+            double skewed = Math.pow(random.nextDouble(), 4);
+            keys[i] = (long) (skewed * catalog);
+        }
+
+        long start = System.nanoTime();
+        for (long key : keys) {
+            backend.loadOrder(OrderKey.of(key));
+        }
+        report(out, "loadOrder directo", reads, System.nanoTime() - start);
+
+        NearCacheDatabase cache = new NearCacheDatabase(backend, 1_000);
+        start = System.nanoTime();
+        for (long key : keys) {
+            cache.loadOrder(OrderKey.of(key));
+        }
+        report(out, String.format("Caché cercana (%.0f%% aciertos)", cache.hitRate() * 100),
+            reads, System.nanoTime() - start);
+    }
+
+    static void benchmarkRingBuffer(int orderCount, PrintStream out) throws InterruptedException {
+        for (OrderRingBuffer.WaitStrategy strategy : OrderRingBuffer.WaitStrategy.values()) {
+            if (strategy == OrderRingBuffer.WaitStrategy.BUSY_SPIN && Runtime.getRuntime().availableProcessors() < 2) {
+                continue;
+            }
+            InMemoryDatabase backend = new InMemoryDatabase();
+            OrderRingBuffer ring = new OrderRingBuffer(backend, 4_096, strategy, 256);
+            long start = System.nanoTime();
+            for (int i = 0; i < orderCount; i++) {
+                ring.publish(i);
+            }
+            ring.close();
+            report(out, "Anillo " + strategy + " (" + ring.batchCount() + " lotes)", orderCount, System.nanoTime() - start);
+        }
+    }
+
+    static void benchmarkPool(int orderCount, PrintStream out) throws InterruptedException {
+        InMemoryDatabase backend = new InMemoryDatabase();
+        ResourcePool<OrderStore> pool = new ResourcePool<>(backend::openSession, 4);
+        PooledDatabase database = new PooledDatabase(pool, 1, TimeUnit.SECONDS);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int first = t;
+            executor.execute(() -> {
+                for (int i = first; i < orderCount; i += threads) {
+                    database.saveOrder(i);
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        report(out, "Pool de 4 conexiones, 8 hilos (p99 espera "
+            + pool.waitTimes().percentileNanos(99) + " ns)", orderCount, System.nanoTime() - start);
+    }
+
+    static void benchmarkLogStructured(int orderCount, PrintStream out) throws IOException {
+        Path directory = Files.createTempDirectory("order-log");
+        try (LogStructuredDatabase database = LogStructuredDatabase.open(directory, 1 << 20)) {
+            long start = System.nanoTime();
+            for (int i = 0; i < orderCount; i++) {
+                database.saveOrder(i % 10_000);
+            }
+            database.sync();
+            report(out, "Log estructurado (" + database.compactionCount() + " compactaciones)",
+                orderCount, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            database.saveOrders(orderCount);
+            database.sync();
+            report(out, "Log estructurado por lotes", orderCount, System.nanoTime() - start);
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    static void benchmarkWriteBehind(int orderCount, PrintStream out) throws InterruptedException {
+        int directOrders = Math.max(1, orderCount / 100);
+        RoundTripDatabase direct = new RoundTripDatabase(ROUND_TRIP_NANOS);
+        OrderProcessor directProcessor = new OrderProcessor(direct);
+        long start = System.nanoTime();
+        runSilently(() -> {
+            for (int i = 0; i < directOrders; i++) {
+                directProcessor.processOrder();
+            }
+        });
+        report(out, "saveOrder directo (" + direct.roundTrips + " viajes)", directOrders, System.nanoTime() - start);
+
+        RoundTripDatabase backend = new RoundTripDatabase(ROUND_TRIP_NANOS);
+        WriteBehindDatabase writeBehind = new WriteBehindDatabase(
+            backend, 1_000, 5, TimeUnit.MILLISECONDS, 10_000, WriteBehindDatabase.OverflowPolicy.BLOCK);
+        OrderProcessor batchedProcessor = new OrderProcessor(writeBehind);
+        start = System.nanoTime();
+        runSilently(() -> {
+            for (int i = 0; i < orderCount; i++) {
+                batchedProcessor.processOrder();
+            }
+        });
+        writeBehind.close();
+        report(out, "Escritura diferida (" + backend.roundTrips + " viajes, lote medio "
+            + Math.round(writeBehind.averageBatchSize()) + ")", orderCount, System.nanoTime() - start);
+    }
+
+    static void runSilently(Runnable action) {
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            action.run();
+        } finally {
+            System.setOut(originalOut);
+        }
+    }
+
+    static void report(PrintStream out, String name, long operations, long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        out.printf("%-50s %,12d ops %10.1f ms %,15.0f ops/s%n",
+            name, operations, elapsedNanos / 1_000_000.0, operations / seconds);
+    }
+
+    static class RoundTripDatabase implements OrderStore {
+        private final long roundTripNanos;
+        private volatile long roundTrips;
+
+        RoundTripDatabase(long roundTripNanos) {
+            this.roundTripNanos = roundTripNanos;
+        }
+
+        @Override
+        public void saveOrder() {
+            saveOrders(1);
+        }
+
+        @Override
+        public void saveOrder(long orderId) {
+            saveOrders(1);
+        }
+
+        @Override
+        public void saveOrder(Order order) {
+            saveOrders(1);
+        }
+
+        @Override
+        public Order loadOrder(OrderKey key) {
+            saveOrders(1);
+            return null;
+        }
+
+        @Override
+        public void saveOrders(long[] orderIds, int offset, int length) {
+            saveOrders(length);
+        }
+
+        @Override
+        public void saveOrders(int count) {
+            long deadline = System.nanoTime() + roundTripNanos;
+            while (System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            roundTrips++;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.solid.dip;
+
+import java.nio.charset.StandardCharsets;
+
+final class OrderKey {
+    static final String DEFAULT_SOURCE = "";
+
+    private final String source;
+    private final long orderId;
+    private final long fingerprint;
+
+    OrderKey(String source, long orderId) {
+        if (source == null) {
+            throw new IllegalArgumentException("El origen del pedido no puede ser null");
+        }
+        if (orderId < 0) {
+            throw new IllegalArgumentException("El identificador del pedido no puede ser negativo");
+        }
+        this.source = source;
+        this.orderId = orderId;
+        this.fingerprint = computeFingerprint(source, orderId);
+    }
+
+    static OrderKey of(long orderId) {
+        return new OrderKey(DEFAULT_SOURCE, orderId);
+    }
+
+    String getSource() {
+        return source;
+    }
+
+    long getOrderId() {
+        return orderId;
+    }
+
+    long fingerprint() {
+        return fingerprint;
+    }
+
+    private static long computeFingerprint(String source, long orderId) {
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : source.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xFF)) * 0x100000001B3L;
+        }
+        hash ^= orderId * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof OrderKey)) {
+            return false;
+        }
+        OrderKey key = (OrderKey) other;
+        return orderId == key.orderId && source.equals(key.source);
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (fingerprint ^ (fingerprint >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return source.isEmpty() ? "#" + orderId : source + "#" + orderId;
+    }
+}
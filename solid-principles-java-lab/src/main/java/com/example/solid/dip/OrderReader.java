@@ -0,0 +1,5 @@
+package com.example.solid.dip;
+
+interface OrderReader {
+    Order loadOrder(OrderKey key);
+}
@@ -0,0 +1,347 @@
+package com.example.solid.dip;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+class OrderRingBuffer implements KeyedDatabase, AutoCloseable {
+    enum WaitStrategy {
+        BUSY_SPIN {
+            @Override
+            void idle(int attempt) {
+                Thread.onSpinWait();
+            }
+        },
+        YIELD {
+            @Override
+            void idle(int attempt) {
+                if (attempt < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+        },
+        PARK {
+            @Override
+            void idle(int attempt) {
+                if (attempt < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                } else if (attempt < SPIN_TRIES * 2) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(PARK_NANOS);
+                }
+            }
+        };
+
+        abstract void idle(int attempt);
+    }
+
+    interface FailureHandler {
+        void onFailure(long[] orderIds, int offset, int length, RuntimeException error);
+    }
+
+    private static final FailureHandler RETHROW = (orderIds, offset, length, error) -> {
+        throw error;
+    };
+
+    private static final int SPIN_TRIES = 100;
+    private static final int DEFAULT_RETRIES = 2;
+    private static final long ANONYMOUS = -1;
+    private static final long PARK_NANOS = 50_000;
+    private static final int PRODUCER = 7;
+    private static final int CONSUMER = 23;
+
+    private final KeyedDatabase database;
+    private final long[] orderIds;
+    private final Order[] orders;
+    private final int mask;
+    private final int maxBatch;
+    private final WaitStrategy waitStrategy;
+    private final int maxRetries;
+    private final FailureHandler failureHandler;
+    private final AtomicLongArray sequences = new AtomicLongArray(32);
+    private final AtomicReference<Thread> producer = new AtomicReference<>();
+    private final Thread consumer;
+
+    private long producerSequence = -1;
+    private long cachedConsumerSequence = -1;
+
+    private long batches;
+    private long failed;
+    private long retries;
+    private volatile RuntimeException lastFailure;
+    private volatile Throwable consumerFailure;
+    private volatile boolean closed;
+
+    OrderRingBuffer(KeyedDatabase database, int capacity, WaitStrategy waitStrategy, int maxBatch) {
+        this(database, capacity, waitStrategy, maxBatch, DEFAULT_RETRIES, RETHROW);
+    }
+
+    OrderRingBuffer(KeyedDatabase database, int capacity, WaitStrategy waitStrategy, int maxBatch,
+                    int maxRetries, FailureHandler failureHandler) {
+        if (database == null) {
+            throw new IllegalArgumentException("La base de datos no puede ser null");
+        }
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("La capacidad del anillo debe ser una potencia de dos");
+        }
+        if (waitStrategy == null) {
+            throw new IllegalArgumentException("La estrategia de espera no puede ser null");
+        }
+        if (maxBatch <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor que cero");
+        }
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("Los reintentos no pueden ser negativos");
+        }
+        if (failureHandler == null) {
+            throw new IllegalArgumentException("El manejador de fallos no puede ser null");
+        }
+        this.database = database;
+        this.orderIds = new long[capacity];
+        this.orders = new Order[capacity];
+        this.mask = capacity - 1;
+        this.maxBatch = Math.min(maxBatch, capacity);
+        this.waitStrategy = waitStrategy;
+        this.maxRetries = maxRetries;
+        this.failureHandler = failureHandler;
+        sequences.set(PRODUCER, -1);
+        sequences.set(CONSUMER, -1);
+        this.consumer = new Thread(this::consumeLoop, "order-ring-consumer");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    @Override
+    public void saveOrder() {
+        publishSlot(ANONYMOUS, null);
+    }
+
+    @Override
+    public void saveOrder(long orderId) {
+        publish(orderId);
+    }
+
+    @Override
+    public void saveOrder(Order order) {
+        if (order == null) {
+            throw new IllegalArgumentException("El pedido no puede ser null");
+        }
+        publishSlot(order.getKey().getOrderId(), order);
+    }
+
+    boolean tryPublish(long orderId) {
+        checkOrderId(orderId);
+        checkProducer();
+        long next = producerSequence + 1;
+        if (!hasCapacity(next)) {
+            return false;
+        }
+        commit(next, orderId, null);
+        return true;
+    }
+
+    void publish(long orderId) {
+        checkOrderId(orderId);
+        publishSlot(orderId, null);
+    }
+
+    private void publishSlot(long orderId, Order order) {
+        checkProducer();
+        long next = producerSequence + 1;
+        for (int attempt = 0; !hasCapacity(next); attempt++) {
+            if (closed) {
+                checkProducer();
+            }
+            waitStrategy.idle(attempt);
+        }
+        commit(next, orderId, order);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        boolean interrupted = false;
+        while (consumer.isAlive()) {
+            try {
+                consumer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    long publishedCount() {
+        return sequences.getAcquire(PRODUCER) + 1;
+    }
+
+    long consumedCount() {
+        return sequences.getAcquire(CONSUMER) + 1;
+    }
+
+    int capacity() {
+        return orderIds.length;
+    }
+
+    synchronized long batchCount() {
+        return batches;
+    }
+
+    synchronized long failedCount() {
+        return failed;
+    }
+
+    synchronized long retryCount() {
+        return retries;
+    }
+
+    RuntimeException lastFailure() {
+        return lastFailure;
+    }
+
+    Throwable consumerFailure() {
+        return consumerFailure;
+    }
+
+    private boolean hasCapacity(long next) {
+        long wrapPoint = next - orderIds.length;
+        if (wrapPoint > cachedConsumerSequence) {
+            cachedConsumerSequence = sequences.getAcquire(CONSUMER);
+            return wrapPoint <= cachedConsumerSequence;
+        }
+        return true;
+    }
+
+    private void commit(long sequence, long orderId, Order order) {
+        orderIds[(int) sequence & mask] = orderId;
+        orders[(int) sequence & mask] = order;
+        producerSequence = sequence;
+        sequences.setRelease(PRODUCER, sequence);
+    }
+
+    private void checkOrderId(long orderId) {
+        if (orderId < 0) {
+            throw new IllegalArgumentException("El identificador del pedido no puede ser negativo");
+        }
+    }
+
+    private void checkProducer() {
+        Throwable failure = consumerFailure;
+        if (failure != null) {
+            throw new IllegalStateException("El consumidor del anillo falló", failure);
+        }
+        if (closed) {
+            throw new IllegalStateException("El anillo de pedidos está cerrado");
+        }
+        Thread current = Thread.currentThread();
+        Thread owner = producer.get();
+        if (owner != current && (owner != null || !producer.compareAndSet(null, current))) {
+            throw new IllegalStateException("El anillo admite un único hilo productor");
+        }
+    }
+
+    private void consumeLoop() {
+        try {
+            consume();
+        } catch (Throwable e) {
+            consumerFailure = e;
+            closed = true;
+        }
+    }
+
+    private void consume() {
+        long consumed = -1;
+        int attempt = 0;
+        while (true) {
+            long available = sequences.getAcquire(PRODUCER);
+            if (available == consumed) {
+                if (closed && sequences.getAcquire(PRODUCER) == consumed) {
+                    return;
+                }
+                waitStrategy.idle(attempt++);
+                continue;
+            }
+            attempt = 0;
+            long end = Math.min(available, consumed + maxBatch);
+            int from = (int) (consumed + 1) & mask;
+            int length = (int) (end - consumed);
+            int firstPart = Math.min(length, orderIds.length - from);
+            int failedOrders = save(from, firstPart);
+            if (firstPart < length) {
+                failedOrders += save(0, length - firstPart);
+            }
+            recordBatch(failedOrders);
+            consumed = end;
+            sequences.setRelease(CONSUMER, consumed);
+        }
+    }
+
+    private int save(int offset, int length) {
+        int failedOrders = 0;
+        int from = offset;
+        int end = offset + length;
+        while (from < end) {
+            int to = from + 1;
+            if (orders[from] == null) {
+                boolean anonymous = orderIds[from] == ANONYMOUS;
+                while (to < end && orders[to] == null && (orderIds[to] == ANONYMOUS) == anonymous) {
+                    to++;
+                }
+            }
+            failedOrders += saveRun(from, to - from);
+            from = to;
+        }
+        Arrays.fill(orders, offset, end, null);
+        return failedOrders;
+    }
+
+    private int saveRun(int offset, int length) {
+        int saved = 0;
+        for (int attempt = 0; ; attempt++) {
+            try {
+                if (orders[offset] != null) {
+                    database.saveOrder(orders[offset]);
+                } else if (attempt > 0) {
+                    for (; saved < length; saved++) {
+                        saveOne(offset + saved);
+                    }
+                } else if (orderIds[offset] == ANONYMOUS) {
+                    database.saveOrders(length);
+                } else {
+                    database.saveOrders(orderIds, offset, length);
+                }
+                return 0;
+            } catch (RuntimeException e) {
+                lastFailure = e;
+                if (attempt == maxRetries) {
+                    failureHandler.onFailure(orderIds, offset + saved, length - saved, e);
+                    return length - saved;
+                }
+                recordRetry();
+            }
+        }
+    }
+
+    private void saveOne(int index) {
+        if (orderIds[index] == ANONYMOUS) {
+            database.saveOrder();
+        } else {
+            database.saveOrder(orderIds[index]);
+        }
+    }
+
+    private synchronized void recordRetry() {
+        retries++;
+    }
+
+    private synchronized void recordBatch(int failedOrders) {
+        batches++;
+        failed += failedOrders;
+    }
+}
@@ -0,0 +1,4 @@
+package com.example.solid.dip;
+
+interface OrderStore extends KeyedDatabase, OrderReader {
+}
@@ -0,0 +1,79 @@
+package com.example.solid.dip;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+class PooledDatabase implements OrderStore {
+    private final ResourcePool<OrderStore> pool;
+    private final long acquireTimeoutNanos;
+
+    PooledDatabase(ResourcePool<OrderStore> pool, long acquireTimeout, TimeUnit unit) {
+        if (pool == null) {
+            throw new IllegalArgumentException("El pool no puede ser null");
+        }
+        if (unit == null || acquireTimeout < 0) {
+            throw new IllegalArgumentException("El tiempo de espera no puede ser negativo");
+        }
+        this.pool = pool;
+        this.acquireTimeoutNanos = unit.toNanos(acquireTimeout);
+    }
+
+    @Override
+    public void saveOrder() {
+        withConnection(Database::saveOrder);
+    }
+
+    @Override
+    public void saveOrder(long orderId) {
+        withConnection(connection -> connection.saveOrder(orderId));
+    }
+
+    @Override
+    public void saveOrders(int count) {
+        withConnection(connection -> connection.saveOrders(count));
+    }
+
+    @Override
+    public void saveOrders(long[] orderIds, int offset, int length) {
+        withConnection(connection -> connection.saveOrders(orderIds, offset, length));
+    }
+
+    @Override
+    public void saveOrder(Order order) {
+        withConnection(connection -> connection.saveOrder(order));
+    }
+
+    @Override
+    public Order loadOrder(OrderKey key) {
+        Order[] loaded = new Order[1];
+        withConnection(connection -> loaded[0] = connection.loadOrder(key));
+        return loaded[0];
+    }
+
+    private void withConnection(Consumer<OrderStore> action) {
+        OrderStore connection;
+        try {
+            connection = pool.acquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido mientras se esperaba una conexión", e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        boolean healthy = false;
+        try {
+            action.accept(connection);
+            healthy = true;
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            healthy = true;
+            throw e;
+        } finally {
+            if (healthy) {
+                pool.release(connection);
+            } else {
+                pool.invalidate(connection);
+            }
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.example.solid.dip;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+class ResourcePool<T> implements AutoCloseable {
+    private static final Object CANCELLED = new Object();
+
+    private final Supplier<? extends T> factory;
+    private final Consumer<? super T> destroyer;
+    private final int maxSize;
+    private final ConcurrentLinkedDeque<Entry<T>> idle = new ConcurrentLinkedDeque<>();
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger created = new AtomicInteger();
+    private final ConcurrentHashMap<IdentityKey, Entry<T>> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger borrowed = new AtomicInteger();
+    private final LongAdder timeouts = new LongAdder();
+    private final WaitTimeHistogram waitTimes = new WaitTimeHistogram();
+
+    private volatile boolean closed;
+
+    ResourcePool(Supplier<? extends T> factory, int maxSize) {
+        this(factory, resource -> { }, maxSize);
+    }
+
+    ResourcePool(Supplier<? extends T> factory, Consumer<? super T> destroyer, int maxSize) {
+        if (factory == null) {
+            throw new IllegalArgumentException("La fábrica de recursos no puede ser null");
+        }
+        if (destroyer == null) {
+            throw new IllegalArgumentException("El destructor de recursos no puede ser null");
+        }
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("El pool debe admitir al menos un recurso");
+        }
+        this.factory = factory;
+        this.destroyer = destroyer;
+        this.maxSize = maxSize;
+    }
+
+    T acquire(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        if (unit == null) {
+            throw new IllegalArgumentException("La unidad de tiempo no puede ser null");
+        }
+        ensureOpen();
+        long start = System.nanoTime();
+        if (waiters.isEmpty()) {
+            Entry<T> entry = tryTake();
+            if (entry != null) {
+                return borrow(entry, start);
+            }
+        }
+        return awaitHandoff(start, start + unit.toNanos(timeout));
+    }
+
+    void release(T resource) {
+        if (resource == null) {
+            throw new IllegalArgumentException("El recurso no puede ser null");
+        }
+        Entry<T> entry = returnBorrowed(resource);
+        if (closed) {
+            discard(entry);
+            return;
+        }
+        Waiter waiter;
+        while ((waiter = waiters.poll()) != null) {
+            if (waiter.slot.compareAndSet(null, entry)) {
+                LockSupport.unpark(waiter.thread);
+                return;
+            }
+        }
+        idle.offerFirst(entry);
+        Waiter late = waiters.peek();
+        if (late != null) {
+            LockSupport.unpark(late.thread);
+        }
+    }
+
+    void invalidate(T resource) {
+        if (resource == null) {
+            throw new IllegalArgumentException("El recurso no puede ser null");
+        }
+        discard(returnBorrowed(resource));
+        Waiter head = waiters.peek();
+        if (head != null) {
+            LockSupport.unpark(head.thread);
+        }
+    }
+
+    int maxSize() {
+        return maxSize;
+    }
+
+    int size() {
+        return created.get();
+    }
+
+    int idleCount() {
+        return idle.size();
+    }
+
+    int borrowedCount() {
+        return borrowed.get();
+    }
+
+    int waitingCount() {
+        return waiters.size();
+    }
+
+    long timeoutCount() {
+        return timeouts.sum();
+    }
+
+    WaitTimeHistogram waitTimes() {
+        return waitTimes;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Entry<T> entry;
+        while ((entry = idle.pollFirst()) != null) {
+            discard(entry);
+        }
+        for (Waiter waiter : waiters) {
+            LockSupport.unpark(waiter.thread);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T awaitHandoff(long start, long deadline) throws InterruptedException, TimeoutException {
+        Waiter waiter = new Waiter(Thread.currentThread());
+        waiters.add(waiter);
+        try {
+            while (true) {
+                Object handed = waiter.slot.get();
+                if (handed != null) {
+                    return borrow((Entry<T>) handed, start);
+                }
+                if (waiters.peek() == waiter) {
+                    Entry<T> entry = tryTake();
+                    if (entry != null) {
+                        if (waiter.slot.compareAndSet(null, CANCELLED)) {
+                            return borrow(entry, start);
+                        }
+                        idle.offerFirst(entry);
+                        continue;
+                    }
+                }
+                long remaining = deadline - System.nanoTime();
+                if (closed || remaining <= 0 || Thread.interrupted()) {
+                    if (waiter.slot.compareAndSet(null, CANCELLED)) {
+                        if (closed) {
+                            ensureOpen();
+                        }
+                        if (remaining <= 0) {
+                            timeouts.increment();
+                            waitTimes.record(System.nanoTime() - start);
+                            throw new TimeoutException("No hay recursos disponibles tras "
+                                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+                        }
+                        throw new InterruptedException();
+                    }
+                    continue;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+        } finally {
+            waiters.remove(waiter);
+            Waiter next = waiters.peek();
+            if (next != null && !idle.isEmpty()) {
+                LockSupport.unpark(next.thread);
+            }
+        }
+    }
+
+    private Entry<T> tryTake() {
+        Entry<T> idleEntry = idle.pollFirst();
+        if (idleEntry != null) {
+            return idleEntry;
+        }
+        int current;
+        do {
+            current = created.get();
+            if (current >= maxSize) {
+                return null;
+            }
+        } while (!created.compareAndSet(current, current + 1));
+        T resource;
+        try {
+            resource = factory.get();
+        } catch (RuntimeException e) {
+            created.decrementAndGet();
+            throw e;
+        }
+        if (resource == null) {
+            created.decrementAndGet();
+            throw new IllegalStateException("La fábrica de recursos devolvió null");
+        }
+        Entry<T> entry = new Entry<>(resource);
+        if (entries.putIfAbsent(entry.key, entry) != null) {
+            created.decrementAndGet();
+            throw new IllegalStateException("La fábrica de recursos devolvió un recurso que ya pertenece al pool");
+        }
+        return entry;
+    }
+
+    private T borrow(Entry<T> entry, long start) {
+        entry.borrowed.set(true);
+        borrowed.incrementAndGet();
+        waitTimes.record(System.nanoTime() - start);
+        return entry.resource;
+    }
+
+    private Entry<T> returnBorrowed(T resource) {
+        Entry<T> entry = entries.get(new IdentityKey(resource));
+        if (entry == null || !entry.borrowed.compareAndSet(true, false)) {
+            throw new IllegalStateException("El recurso no está prestado por este pool o ya fue devuelto");
+        }
+        borrowed.decrementAndGet();
+        return entry;
+    }
+
+    private void discard(Entry<T> entry) {
+        entries.remove(entry.key, entry);
+        created.decrementAndGet();
+        destroyer.accept(entry.resource);
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("El pool de recursos está cerrado");
+        }
+    }
+
+    private static final class Entry<T> {
+        private final T resource;
+        private final IdentityKey key;
+        private final AtomicBoolean borrowed = new AtomicBoolean();
+
+        private Entry(T resource) {
+            this.resource = resource;
+            this.key = new IdentityKey(resource);
+        }
+    }
+
+    private static final class IdentityKey {
+        private final Object resource;
+
+        private IdentityKey(Object resource) {
+            this.resource = resource;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof IdentityKey && ((IdentityKey) other).resource == resource;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(resource);
+        }
+    }
+
+    private static final class Waiter {
+        private final Thread thread;
+        private final AtomicReference<Object> slot = new AtomicReference<>();
+
+        private Waiter(Thread thread) {
+            this.thread = thread;
+        }
+    }
+}
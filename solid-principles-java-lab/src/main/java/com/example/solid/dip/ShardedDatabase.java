@@ -0,0 +1,190 @@
+package com.example.solid.dip;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+class ShardedDatabase implements OrderStore {
+    private final int virtualNodes;
+    private final AtomicLong anonymousOrders = new AtomicLong();
+
+    private volatile Ring ring = new Ring(new Shard[0], new long[0], new int[0]);
+
+    ShardedDatabase(int virtualNodes) {
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("Cada shard debe tener al menos un nodo virtual");
+        }
+        this.virtualNodes = virtualNodes;
+    }
+
+    synchronized void addShard(String name, OrderStore database) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("El nombre del shard no puede estar vacío");
+        }
+        if (database == null) {
+            throw new IllegalArgumentException("La base de datos no puede ser null");
+        }
+        Shard[] current = ring.shards;
+        for (Shard shard : current) {
+            if (shard.name.equals(name)) {
+                throw new IllegalArgumentException("El shard ya existe: " + name);
+            }
+        }
+        Shard[] shards = Arrays.copyOf(current, current.length + 1);
+        shards[current.length] = new Shard(name, database);
+        ring = build(shards);
+    }
+
+    synchronized boolean removeShard(String name) {
+        Shard[] current = ring.shards;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i].name.equals(name)) {
+                Shard[] shards = new Shard[current.length - 1];
+                System.arraycopy(current, 0, shards, 0, i);
+                System.arraycopy(current, i + 1, shards, i, current.length - i - 1);
+                ring = build(shards);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void saveOrder() {
+        Shard shard = route(anonymousOrders.getAndIncrement());
+        shard.database.saveOrder();
+        shard.orders.increment();
+    }
+
+    @Override
+    public void saveOrder(long orderId) {
+        Shard shard = route(orderId);
+        shard.database.saveOrder(orderId);
+        shard.orders.increment();
+    }
+
+    @Override
+    public void saveOrder(Order order) {
+        if (order == null) {
+            throw new IllegalArgumentException("El pedido no puede ser null");
+        }
+        Shard shard = route(order.getKey().getOrderId());
+        shard.database.saveOrder(order);
+        shard.orders.increment();
+    }
+
+    @Override
+    public Order loadOrder(OrderKey key) {
+        if (key == null) {
+            throw new IllegalArgumentException("La clave del pedido no puede ser null");
+        }
+        return route(key.getOrderId()).database.loadOrder(key);
+    }
+
+    @Override
+    public void saveOrders(int count) {
+        for (int i = 0; i < count; i++) {
+            saveOrder();
+        }
+    }
+
+    String shardFor(long orderId) {
+        return route(orderId).name;
+    }
+
+    int shardCount() {
+        return ring.shards.length;
+    }
+
+    Map<String, Long> ordersPerShard() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Shard shard : ring.shards) {
+            counts.put(shard.name, shard.orders.sum());
+        }
+        return counts;
+    }
+
+    private Shard route(long orderId) {
+        Ring snapshot = ring;
+        if (snapshot.shards.length == 0) {
+            throw new IllegalStateException("No hay shards registrados");
+        }
+        long[] points = snapshot.points;
+        int index = Arrays.binarySearch(points, mix(orderId));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        if (index == points.length) {
+            index = 0;
+        }
+        return snapshot.shards[snapshot.owners[index]];
+    }
+
+    private Ring build(Shard[] shards) {
+        long[] points = new long[shards.length * virtualNodes];
+        int[] owners = new int[points.length];
+        long[] entries = new long[points.length];
+        int[] entryOwners = new int[points.length];
+        int count = 0;
+        for (int s = 0; s < shards.length; s++) {
+            long seed = hash(shards[s].name);
+            for (int v = 0; v < virtualNodes; v++) {
+                entries[count] = mix(seed + v * 0x9E3779B97F4A7C15L);
+                entryOwners[count++] = s;
+            }
+        }
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(entries[a], entries[b]));
+        for (int i = 0; i < count; i++) {
+            points[i] = entries[order[i]];
+            owners[i] = entryOwners[order[i]];
+        }
+        return new Ring(shards, points, owners);
+    }
+
+    private static long hash(String name) {
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : name.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xFF)) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xFF51AFD7ED558CCDL;
+        key ^= key >>> 33;
+        key *= 0xC4CEB9FE1A85EC53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static final class Shard {
+        private final String name;
+        private final OrderStore database;
+        private final LongAdder orders = new LongAdder();
+
+        private Shard(String name, OrderStore database) {
+            this.name = name;
+            this.database = database;
+        }
+    }
+
+    private static final class Ring {
+        private final Shard[] shards;
+        private final long[] points;
+        private final int[] owners;
+
+        private Ring(Shard[] shards, long[] points, int[] owners) {
+            this.shards = shards;
+            this.points = points;
+            this.owners = owners;
+        }
+    }
+}
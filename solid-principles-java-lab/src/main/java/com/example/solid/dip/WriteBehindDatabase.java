@@ -0,0 +1,416 @@
+package com.example.solid.dip;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+class WriteBehindDatabase implements OrderStore, AutoCloseable {
+    enum OverflowPolicy { BLOCK, FAIL }
+
+    private static final long ANONYMOUS = -1;
+
+    private final OrderStore delegate;
+    private final int maxBatchSize;
+    private final long maxLatencyNanos;
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition ordersAvailable = lock.newCondition();
+    private final Condition spaceAvailable = lock.newCondition();
+    private final Condition batchFlushed = lock.newCondition();
+    private final Thread flusher;
+    private final long[] orderIds;
+    private final Order[] orders;
+    private Order[] flushingOrders;
+    private int flushingCount;
+
+    private int head;
+    private int pending;
+    private long oldestPendingNanos;
+    private long accepted;
+    private long flushed;
+    private long failed;
+    private long flushTarget;
+    private boolean closed;
+
+    private long batches;
+    private int largestBatch;
+    private long totalFlushNanos;
+    private long maxFlushNanos;
+
+    WriteBehindDatabase(OrderStore delegate, int maxBatchSize, long maxLatency, TimeUnit unit,
+                        int capacity, OverflowPolicy overflowPolicy) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("La base de datos no puede ser null");
+        }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor que cero");
+        }
+        if (unit == null || maxLatency <= 0) {
+            throw new IllegalArgumentException("La latencia máxima debe ser mayor que cero");
+        }
+        if (capacity < maxBatchSize) {
+            throw new IllegalArgumentException("La capacidad del búfer debe cubrir al menos un lote");
+        }
+        if (overflowPolicy == null) {
+            throw new IllegalArgumentException("La política de desbordamiento no puede ser null");
+        }
+        this.delegate = delegate;
+        this.maxBatchSize = maxBatchSize;
+        this.maxLatencyNanos = unit.toNanos(maxLatency);
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        this.orderIds = new long[capacity];
+        this.orders = new Order[capacity];
+        this.flusher = new Thread(this::flushLoop, "write-behind-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    @Override
+    public void saveOrder() {
+        saveOrders(1);
+    }
+
+    @Override
+    public void saveOrder(long orderId) {
+        checkOrderId(orderId);
+        lock.lock();
+        try {
+            reserve(1);
+            enqueue(orderId, null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void saveOrder(Order order) {
+        if (order == null) {
+            throw new IllegalArgumentException("El pedido no puede ser null");
+        }
+        lock.lock();
+        try {
+            reserve(1);
+            enqueue(order.getKey().getOrderId(), order);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Order loadOrder(OrderKey key) {
+        if (key == null) {
+            throw new IllegalArgumentException("La clave del pedido no puede ser null");
+        }
+        lock.lock();
+        try {
+            for (int i = pending - 1; i >= 0; i--) {
+                Order order = orders[(head + i) % capacity];
+                if (order != null && order.getKey().equals(key)) {
+                    return order;
+                }
+            }
+            for (int i = flushingCount - 1; i >= 0; i--) {
+                Order order = flushingOrders[i];
+                if (order != null && order.getKey().equals(key)) {
+                    return order;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return delegate.loadOrder(key);
+    }
+
+    @Override
+    public void saveOrders(int count) {
+        if (count <= 0) {
+            return;
+        }
+        checkBatchSize(count);
+        lock.lock();
+        try {
+            reserve(count);
+            for (int i = 0; i < count; i++) {
+                enqueue(ANONYMOUS, null);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void saveOrders(long[] orderIds, int offset, int length) {
+        if (orderIds == null) {
+            throw new IllegalArgumentException("Los identificadores no pueden ser null");
+        }
+        if (offset < 0 || length < 0 || length > orderIds.length - offset) {
+            throw new IndexOutOfBoundsException("Rango fuera del arreglo de identificadores");
+        }
+        if (length == 0) {
+            return;
+        }
+        checkBatchSize(length);
+        for (int i = offset; i < offset + length; i++) {
+            checkOrderId(orderIds[i]);
+        }
+        lock.lock();
+        try {
+            reserve(length);
+            for (int i = offset; i < offset + length; i++) {
+                enqueue(orderIds[i], null);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void flush() throws InterruptedException {
+        lock.lock();
+        try {
+            long target = accepted;
+            flushTarget = Math.max(flushTarget, target);
+            ordersAvailable.signal();
+            while (flushed + failed < target) {
+                batchFlushed.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            ordersAvailable.signal();
+            spaceAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        boolean interrupted = false;
+        while (flusher.isAlive()) {
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void reserve(int count) {
+        ensureOpen();
+        while (pending + count > capacity) {
+            if (overflowPolicy == OverflowPolicy.FAIL) {
+                throw new IllegalStateException("El búfer de escritura diferida está lleno");
+            }
+            spaceAvailable.awaitUninterruptibly();
+            ensureOpen();
+        }
+        if (pending == 0) {
+            oldestPendingNanos = System.nanoTime();
+            ordersAvailable.signal();
+        }
+    }
+
+    private void enqueue(long orderId, Order order) {
+        int slot = (head + pending) % capacity;
+        orderIds[slot] = orderId;
+        orders[slot] = order;
+        pending++;
+        accepted++;
+        if (pending == maxBatchSize) {
+            ordersAvailable.signal();
+        }
+    }
+
+    private void flushLoop() {
+        long[] batchIds = new long[maxBatchSize];
+        Order[] batchOrders = new Order[maxBatchSize];
+        lock.lock();
+        try {
+            while (true) {
+                if (pending == 0) {
+                    if (closed) {
+                        return;
+                    }
+                    ordersAvailable.awaitUninterruptibly();
+                    continue;
+                }
+                long waitNanos = oldestPendingNanos + maxLatencyNanos - System.nanoTime();
+                boolean due = pending >= maxBatchSize || closed || flushed + failed < flushTarget;
+                if (!due && waitNanos > 0) {
+                    try {
+                        ordersAvailable.awaitNanos(waitNanos);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    continue;
+                }
+                int batch = Math.min(pending, maxBatchSize);
+                for (int i = 0; i < batch; i++) {
+                    int slot = (head + i) % capacity;
+                    batchIds[i] = orderIds[slot];
+                    batchOrders[i] = orders[slot];
+                    orders[slot] = null;
+                }
+                head = (head + batch) % capacity;
+                pending -= batch;
+                flushingOrders = batchOrders;
+                flushingCount = batch;
+                spaceAvailable.signalAll();
+                lock.unlock();
+                long start = System.nanoTime();
+                int failedOrders;
+                try {
+                    failedOrders = write(batchIds, batchOrders, batch);
+                } finally {
+                    lock.lock();
+                    flushingCount = 0;
+                    Arrays.fill(batchOrders, 0, batch, null);
+                }
+                recordBatch(batch, failedOrders, System.nanoTime() - start);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int write(long[] batchIds, Order[] batchOrders, int batch) {
+        int failedOrders = 0;
+        int from = 0;
+        while (from < batch) {
+            int to = from + 1;
+            try {
+                if (batchOrders[from] != null) {
+                    delegate.saveOrder(batchOrders[from]);
+                } else if (batchIds[from] == ANONYMOUS) {
+                    while (to < batch && batchOrders[to] == null && batchIds[to] == ANONYMOUS) {
+                        to++;
+                    }
+                    delegate.saveOrders(to - from);
+                } else {
+                    while (to < batch && batchOrders[to] == null && batchIds[to] != ANONYMOUS) {
+                        to++;
+                    }
+                    delegate.saveOrders(batchIds, from, to - from);
+                }
+            } catch (RuntimeException e) {
+                failedOrders += to - from;
+            }
+            from = to;
+        }
+        return failedOrders;
+    }
+
+    private void checkOrderId(long orderId) {
+        if (orderId < 0) {
+            throw new IllegalArgumentException("El identificador del pedido no puede ser negativo");
+        }
+    }
+
+    private void checkBatchSize(int count) {
+        if (count > capacity) {
+            throw new IllegalArgumentException("El lote excede la capacidad del búfer de " + capacity + " pedidos");
+        }
+    }
+
+    private void recordBatch(int batch, int failedOrders, long elapsedNanos) {
+        flushed += batch - failedOrders;
+        failed += failedOrders;
+        batches++;
+        largestBatch = Math.max(largestBatch, batch);
+        totalFlushNanos += elapsedNanos;
+        maxFlushNanos = Math.max(maxFlushNanos, elapsedNanos);
+        batchFlushed.signalAll();
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("La base de datos de escritura diferida está cerrada");
+        }
+    }
+
+    int pendingCount() {
+        lock.lock();
+        try {
+            return pending;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long flushedCount() {
+        lock.lock();
+        try {
+            return flushed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long failedCount() {
+        lock.lock();
+        try {
+            return failed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long batchCount() {
+        lock.lock();
+        try {
+            return batches;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int largestBatch() {
+        lock.lock();
+        try {
+            return largestBatch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    double averageBatchSize() {
+        lock.lock();
+        try {
+            return batches == 0 ? 0.0 : (double) (flushed + failed) / batches;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long averageFlushNanos() {
+        lock.lock();
+        try {
+            return batches == 0 ? 0 : totalFlushNanos / batches;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long maxFlushNanos() {
+        lock.lock();
+        try {
+            return maxFlushNanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.solid.isp;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+class BreakScheduler {
+    private static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final long tickNanos;
+    private final int mask;
+    private final int firing;
+    private final int[] heads;
+
+    private Eatable[] targets = new Eatable[INITIAL_CAPACITY];
+    private long[] deadlines = new long[INITIAL_CAPACITY];
+    private long[] periods = new long[INITIAL_CAPACITY];
+    private int[] generations = new int[INITIAL_CAPACITY];
+    private int[] buckets = new int[INITIAL_CAPACITY];
+    private int[] next = new int[INITIAL_CAPACITY];
+    private int[] previous = new int[INITIAL_CAPACITY];
+    private int allocated;
+    private int freeHead = NONE;
+    private int size;
+
+    private long currentTick;
+    private long leftoverNanos;
+    private long failures;
+
+    BreakScheduler(long tickDuration, TimeUnit unit, int wheelSize) {
+        if (unit == null) {
+            throw new IllegalArgumentException("La unidad de tiempo no puede ser null");
+        }
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("La duración del tick debe ser mayor que cero");
+        }
+        if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("El tamaño de la rueda debe ser una potencia de dos");
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.mask = wheelSize - 1;
+        this.firing = wheelSize;
+        this.heads = new int[wheelSize + 1];
+        Arrays.fill(heads, NONE);
+    }
+
+    long schedule(Eatable eater, long delay, TimeUnit unit) {
+        return insert(eater, delay, 0, unit);
+    }
+
+    long scheduleAtFixedRate(Eatable eater, long initialDelay, long period, TimeUnit unit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("El periodo debe ser mayor que cero");
+        }
+        return insert(eater, initialDelay, period, unit);
+    }
+
+    private long insert(Eatable eater, long delay, long period, TimeUnit unit) {
+        if (eater == null) {
+            throw new IllegalArgumentException("El comensal no puede ser null");
+        }
+        if (unit == null) {
+            throw new IllegalArgumentException("La unidad de tiempo no puede ser null");
+        }
+        if (delay < 0) {
+            throw new IllegalArgumentException("El retardo no puede ser negativo");
+        }
+        int slot = allocate();
+        targets[slot] = eater;
+        periods[slot] = period == 0 ? 0 : toTicks(period, unit);
+        link(slot, currentTick + toTicks(delay, unit));
+        size++;
+        return handle(slot);
+    }
+
+    boolean cancel(long handle) {
+        int slot = liveSlot(handle);
+        if (slot == NONE) {
+            return false;
+        }
+        if (buckets[slot] != NONE) {
+            unlink(slot);
+        }
+        release(slot);
+        return true;
+    }
+
+    boolean isScheduled(long handle) {
+        return liveSlot(handle) != NONE;
+    }
+
+    int tick() {
+        currentTick++;
+        int bucket = (int) (currentTick & mask);
+        int slot = heads[bucket];
+        while (slot != NONE) {
+            int following = next[slot];
+            if (deadlines[slot] <= currentTick) {
+                unlink(slot);
+                push(firing, slot);
+            }
+            slot = following;
+        }
+        return fireDue();
+    }
+
+    int advance(long elapsed, TimeUnit unit) {
+        if (unit == null) {
+            throw new IllegalArgumentException("La unidad de tiempo no puede ser null");
+        }
+        if (elapsed < 0) {
+            throw new IllegalArgumentException("El tiempo transcurrido no puede ser negativo");
+        }
+        long nanos = unit.toNanos(elapsed);
+        long remainder = nanos % tickNanos + leftoverNanos;
+        long ticks = nanos / tickNanos + remainder / tickNanos;
+        leftoverNanos = remainder % tickNanos;
+        int fired = 0;
+        for (long i = 0; i < ticks; i++) {
+            fired += tick();
+        }
+        return fired;
+    }
+
+    long runWorkday(Collection<? extends Workable> workers, int ticks) {
+        if (workers == null) {
+            throw new IllegalArgumentException("Los trabajadores no pueden ser null");
+        }
+        long breaks = 0;
+        for (int i = 0; i < ticks; i++) {
+            for (Workable worker : workers) {
+                worker.work();
+            }
+            breaks += tick();
+        }
+        return breaks;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long currentTick() {
+        return currentTick;
+    }
+
+    long tickNanos() {
+        return tickNanos;
+    }
+
+    long failureCount() {
+        return failures;
+    }
+
+    int wheelSize() {
+        return firing;
+    }
+
+    private int fireDue() {
+        int fired = 0;
+        while (heads[firing] != NONE) {
+            int slot = heads[firing];
+            unlink(slot);
+            int generation = generations[slot];
+            Eatable eater = targets[slot];
+            try {
+                fired++;
+                eater.eat();
+            } catch (RuntimeException e) {
+                failures++;
+            } finally {
+                if (generations[slot] == generation && targets[slot] == eater) {
+                    if (periods[slot] > 0) {
+                        link(slot, deadlines[slot] + periods[slot]);
+                    } else {
+                        release(slot);
+                    }
+                }
+            }
+        }
+        return fired;
+    }
+
+    private long toTicks(long duration, TimeUnit unit) {
+        long nanos = unit.toNanos(duration);
+        long ticks = nanos / tickNanos;
+        if (ticks * tickNanos < nanos) {
+            ticks++;
+        }
+        return Math.max(1, ticks);
+    }
+
+    private void link(int slot, long deadline) {
+        deadlines[slot] = Math.max(deadline, currentTick + 1);
+        push((int) (deadlines[slot] & mask), slot);
+    }
+
+    private void push(int bucket, int slot) {
+        int head = heads[bucket];
+        buckets[slot] = bucket;
+        previous[slot] = NONE;
+        next[slot] = head;
+        if (head != NONE) {
+            previous[head] = slot;
+        }
+        heads[bucket] = slot;
+    }
+
+    private void unlink(int slot) {
+        int before = previous[slot];
+        int after = next[slot];
+        if (before == NONE) {
+            heads[buckets[slot]] = after;
+        } else {
+            next[before] = after;
+        }
+        if (after != NONE) {
+            previous[after] = before;
+        }
+        buckets[slot] = NONE;
+    }
+
+    private int allocate() {
+        int slot = freeHead;
+        if (slot != NONE) {
+            freeHead = next[slot];
+        } else {
+            if (allocated == targets.length) {
+                grow();
+            }
+            slot = allocated++;
+        }
+        generations[slot]++;
+        buckets[slot] = NONE;
+        return slot;
+    }
+
+    private void release(int slot) {
+        targets[slot] = null;
+        buckets[slot] = NONE;
+        next[slot] = freeHead;
+        freeHead = slot;
+        size--;
+    }
+
+    private void grow() {
+        int capacity = targets.length * 2;
+        targets = Arrays.copyOf(targets, capacity);
+        deadlines = Arrays.copyOf(deadlines, capacity);
+        periods = Arrays.copyOf(periods, capacity);
+        generations = Arrays.copyOf(generations, capacity);
+        buckets = Arrays.copyOf(buckets, capacity);
+        next = Arrays.copyOf(next, capacity);
+        previous = Arrays.copyOf(previous, capacity);
+    }
+
+    private long handle(int slot) {
+        return ((long) generations[slot] << 32) | slot;
+    }
+
+    private int liveSlot(long handle) {
+        int slot = (int) handle;
+        if (slot < 0 || slot >= allocated || targets[slot] == null) {
+            return NONE;
+        }
+        return generations[slot] == (int) (handle >>> 32) ? slot : NONE;
+    }
+}
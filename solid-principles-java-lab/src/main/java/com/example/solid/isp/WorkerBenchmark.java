@@ -0,0 +1,91 @@
+package com.example.solid.isp;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class WorkerBenchmark {
+    private static final int DEFAULT_WORKERS = 1_000_000;
+    private static final int MAX_DELAY_MILLIS = 1_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int workerCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_WORKERS;
+        SilentDeveloper[] developers = new SilentDeveloper[workerCount];
+        long[] delays = new long[workerCount];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < workerCount; i++) {
+            developers[i] = new SilentDeveloper();
+            delays[i] = 1 + random.nextInt(MAX_DELAY_MILLIS);
+        }
+
+        for (int round = 0; round < 3; round++) {
+            benchmarkTimingWheel(developers, delays);
+            benchmarkScheduledExecutor(developers, delays);
+        }
+    }
+
+    static void benchmarkTimingWheel(SilentDeveloper[] developers, long[] delays) {
+        BreakScheduler scheduler = new BreakScheduler(1, TimeUnit.MILLISECONDS, 1_024);
+        long[] handles = new long[developers.length];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < developers.length; i++) {
+            handles[i] = scheduler.schedule(developers[i], delays[i], TimeUnit.MILLISECONDS);
+        }
+        report("Rueda de tiempo: programar", developers.length, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < handles.length; i += 2) {
+            scheduler.cancel(handles[i]);
+        }
+        report("Rueda de tiempo: cancelar la mitad", handles.length / 2, System.nanoTime() - start);
+
+        int pending = scheduler.size();
+        start = System.nanoTime();
+        scheduler.advance(MAX_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        report("Rueda de tiempo: disparar eat()", pending, System.nanoTime() - start);
+    }
+
+    static void benchmarkScheduledExecutor(SilentDeveloper[] developers, long[] delays) throws InterruptedException {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+        executor.setRemoveOnCancelPolicy(true);
+        ScheduledFuture<?>[] futures = new ScheduledFuture<?>[developers.length];
+        try {
+            long start = System.nanoTime();
+            for (int i = 0; i < developers.length; i++) {
+                SilentDeveloper developer = developers[i];
+                futures[i] = executor.schedule(developer::eat, delays[i] + 60_000, TimeUnit.MILLISECONDS);
+            }
+            report("ScheduledThreadPoolExecutor: programar", developers.length, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int i = 0; i < futures.length; i += 2) {
+                futures[i].cancel(false);
+            }
+            report("ScheduledThreadPoolExecutor: cancelar la mitad", futures.length / 2, System.nanoTime() - start);
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    static void report(String name, long operations, long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("%-50s %,12d ops %10.1f ms %,15.0f ops/s%n",
+            name, operations, elapsedNanos / 1_000_000.0, operations / seconds);
+    }
+
+    static class SilentDeveloper implements Workable, Eatable {
+        private long meals;
+
+        @Override
+        public void work() {
+        }
+
+        @Override
+        public void eat() {
+            meals++;
+        }
+    }
+}
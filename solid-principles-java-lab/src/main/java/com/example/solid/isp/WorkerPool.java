@@ -0,0 +1,279 @@
+package com.example.solid.isp;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+class WorkerPool implements AutoCloseable {
+    private static final int DEFAULT_BATCH_THRESHOLD = 64;
+
+    private final ForkJoinPool pool;
+    private final int batchThreshold;
+    private final List<Worker> workers = new CopyOnWriteArrayList<>();
+    private final AtomicInteger workerNames = new AtomicInteger();
+    private final Map<Class<?>, LongAdder> completedByType = new ConcurrentHashMap<>();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final AtomicLong pending = new AtomicLong();
+    private final Object drained = new Object();
+
+    private volatile boolean closed;
+    private volatile Error lastError;
+
+    WorkerPool() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_BATCH_THRESHOLD);
+    }
+
+    WorkerPool(int parallelism, int batchThreshold) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("El pool debe tener al menos un trabajador");
+        }
+        if (batchThreshold <= 0) {
+            throw new IllegalArgumentException("El umbral de lote debe ser mayor que cero");
+        }
+        this.batchThreshold = batchThreshold;
+        this.pool = new ForkJoinPool(parallelism, this::newWorker, null, true);
+    }
+
+    private ForkJoinWorkerThread newWorker(ForkJoinPool owner) {
+        Worker worker = new Worker(owner, workerNames.getAndIncrement());
+        workers.add(worker);
+        return worker;
+    }
+
+    void submit(Workable workable) {
+        if (workable == null) {
+            throw new IllegalArgumentException("La tarea no puede ser null");
+        }
+        ensureOpen();
+        submitted.increment();
+        pending.incrementAndGet();
+        try {
+            pool.execute(new WorkTask(workable));
+        } catch (RejectedExecutionException e) {
+            submitted.decrement();
+            settle(1);
+            throw e;
+        }
+    }
+
+    int submitAll(Collection<? extends Workable> workables) {
+        if (workables == null) {
+            throw new IllegalArgumentException("Las tareas no pueden ser null");
+        }
+        Workable[] batch = workables.toArray(new Workable[0]);
+        for (Workable workable : batch) {
+            if (workable == null) {
+                throw new IllegalArgumentException("La tarea no puede ser null");
+            }
+        }
+        if (batch.length == 0) {
+            return 0;
+        }
+        ensureOpen();
+        submitted.add(batch.length);
+        pending.addAndGet(batch.length);
+        try {
+            pool.execute(new BatchTask(batch, 0, batch.length));
+        } catch (RejectedExecutionException e) {
+            submitted.add(-batch.length);
+            settle(batch.length);
+            throw e;
+        }
+        return batch.length;
+    }
+
+    boolean drain(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (drained) {
+            while (pending.get() > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(drained, remaining);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        pool.shutdown();
+        boolean interrupted = false;
+        while (!pool.isTerminated()) {
+            try {
+                pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    int parallelism() {
+        return pool.getParallelism();
+    }
+
+    long submittedCount() {
+        return submitted.sum();
+    }
+
+    long completedCount() {
+        return completed.sum();
+    }
+
+    long pendingCount() {
+        return pending.get();
+    }
+
+    long failureCount() {
+        return failures.sum();
+    }
+
+    Error lastError() {
+        return lastError;
+    }
+
+    long completedCount(Class<? extends Workable> type) {
+        LongAdder counter = completedByType.get(type);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    long stealCount() {
+        return pool.getStealCount();
+    }
+
+    long[] completedPerWorker() {
+        List<Worker> snapshot = new ArrayList<>(workers);
+        long[] counts = new long[snapshot.size()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = snapshot.get(i).completed.get();
+        }
+        return counts;
+    }
+
+    int[] queueDepthPerWorker() {
+        List<Worker> snapshot = new ArrayList<>(workers);
+        int[] depths = new int[snapshot.size()];
+        for (int i = 0; i < depths.length; i++) {
+            depths[i] = snapshot.get(i).queueDepth;
+        }
+        return depths;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new RejectedExecutionException("El pool de trabajadores está cerrado");
+        }
+    }
+
+    private void runWorkable(Workable workable) {
+        try {
+            workable.work();
+            completed.increment();
+            completedByType.computeIfAbsent(workable.getClass(), type -> new LongAdder()).increment();
+            Thread current = Thread.currentThread();
+            if (current instanceof Worker) {
+                Worker worker = (Worker) current;
+                worker.completed.incrementAndGet();
+                worker.queueDepth = ForkJoinTask.getQueuedTaskCount();
+            }
+        } catch (RuntimeException e) {
+            failures.increment();
+        } catch (Error e) {
+            failures.increment();
+            lastError = e;
+            Thread current = Thread.currentThread();
+            current.getUncaughtExceptionHandler().uncaughtException(current, e);
+        } finally {
+            settle(1);
+        }
+    }
+
+    private void settle(long count) {
+        if (pending.addAndGet(-count) == 0) {
+            synchronized (drained) {
+                drained.notifyAll();
+            }
+        }
+    }
+
+    private final class Worker extends ForkJoinWorkerThread {
+        private final AtomicLong completed = new AtomicLong();
+        private volatile int queueDepth;
+
+        private Worker(ForkJoinPool pool, int index) {
+            super(pool);
+            setName("workable-worker-" + index);
+        }
+
+        @Override
+        protected void onTermination(Throwable exception) {
+            workers.remove(this);
+            super.onTermination(exception);
+        }
+    }
+
+    private final class WorkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Workable workable;
+
+        private WorkTask(Workable workable) {
+            this.workable = workable;
+        }
+
+        @Override
+        protected void compute() {
+            runWorkable(workable);
+        }
+    }
+
+    private final class BatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Workable[] batch;
+        private final int from;
+        private final int to;
+
+        private BatchTask(Workable[] batch, int from, int to) {
+            this.batch = batch;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            int end = to;
+            while (end - from > batchThreshold) {
+                int middle = (from + end) >>> 1;
+                new BatchTask(batch, middle, end).fork();
+                end = middle;
+            }
+            for (int i = from; i < end; i++) {
+                runWorkable(batch[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.solid.lsp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class FleetBenchmark {
+    private static final int DEFAULT_VEHICLES = 100_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int vehicleCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_VEHICLES;
+        List<Drivable> fleet = createFleet(vehicleCount);
+
+        for (int round = 0; round < 5; round++) {
+            benchmarkPartitioning(fleet);
+        }
+        benchmarkSimulator(fleet);
+    }
+
+    static List<Drivable> createFleet(int count) {
+        List<Drivable> fleet = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            fleet.add(i % 3 == 0 ? new SilentElectricCar() : new SilentCar());
+        }
+        return fleet;
+    }
+
+    static void benchmarkSimulator(List<Drivable> fleet) throws InterruptedException {
+        FleetSimulator platform = new FleetSimulator(fleet, 20, FleetSimulator.ThreadMode.PLATFORM);
+        System.out.println(platform.run(40, 10));
+        if (FleetSimulator.isVirtualThreadSupported()) {
+            FleetSimulator virtual = new FleetSimulator(fleet, 20, FleetSimulator.ThreadMode.VIRTUAL);
+            System.out.println(virtual.run(40, 10));
+        } else {
+            System.out.println("VIRTUAL: no disponible, se requiere Java 21 o superior");
+        }
+    }
+
+    static void benchmarkPartitioning(List<Drivable> fleet) {
+        PartitionedFleet partitioned = new PartitionedFleet();
+        for (Drivable vehicle : fleet) {
+            partitioned.add(vehicle);
+        }
+
+        long start = System.nanoTime();
+        for (int pass = 0; pass < 20; pass++) {
+            for (Drivable vehicle : fleet) {
+                vehicle.drive();
+                if (vehicle instanceof Refuelable) {
+                    ((Refuelable) vehicle).refuel();
+                }
+            }
+        }
+        report("Lista mixta con instanceof", fleet.size() * 20L, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        for (int pass = 0; pass < 20; pass++) {
+            partitioned.driveAll();
+            partitioned.refuelAll();
+        }
+        report("Flota particionada por capacidad", fleet.size() * 20L, System.nanoTime() - start);
+    }
+
+    static void report(String name, long operations, long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("%-50s %,12d ops %10.1f ms %,15.0f ops/s%n",
+            name, operations, elapsedNanos / 1_000_000.0, operations / seconds);
+    }
+
+    static class SilentCar implements Refuelable, Drivable {
+        long kilometers;
+        long refuels;
+
+        @Override
+        public void refuel() {
+            refuels++;
+        }
+
+        @Override
+        public void drive() {
+            kilometers++;
+        }
+    }
+
+    static class SilentElectricCar implements Drivable {
+        long kilometers;
+
+        @Override
+        public void drive() {
+            kilometers++;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.solid.lsp;
+
+import java.util.concurrent.TimeUnit;
+
+class FleetSimulationReport {
+    private final FleetSimulator.ThreadMode mode;
+    private final int vehicles;
+    private final int ticks;
+    private final long lateTicks;
+    private final long elapsedNanos;
+    private final long p50Nanos;
+    private final long p99Nanos;
+    private final long p999Nanos;
+    private final long maxNanos;
+
+    FleetSimulationReport(FleetSimulator.ThreadMode mode, int vehicles, int ticks, long lateTicks,
+                          long elapsedNanos, LatencyHistogram latencies) {
+        this.mode = mode;
+        this.vehicles = vehicles;
+        this.ticks = ticks;
+        this.lateTicks = lateTicks;
+        this.elapsedNanos = elapsedNanos;
+        this.p50Nanos = latencies.percentile(50);
+        this.p99Nanos = latencies.percentile(99);
+        this.p999Nanos = latencies.percentile(99.9);
+        this.maxNanos = latencies.max();
+    }
+
+    FleetSimulator.ThreadMode getMode() {
+        return mode;
+    }
+
+    int getTicks() {
+        return ticks;
+    }
+
+    long getVehicleTicks() {
+        return (long) vehicles * ticks;
+    }
+
+    long getLateTicks() {
+        return lateTicks;
+    }
+
+    long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    double ticksPerSecond() {
+        return ticks / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    double vehicleTicksPerSecond() {
+        return getVehicleTicks() / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    long getP999Nanos() {
+        return p999Nanos;
+    }
+
+    long getMaxNanos() {
+        return maxNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%s: %,d vehículos, %,d ticks (%,d tarde), %,.1f ticks/s, %,.0f vehículo-ticks/s, "
+                + "p50=%,d µs p99=%,d µs p99.9=%,d µs max=%,d µs",
+            mode, vehicles, ticks, lateTicks, ticksPerSecond(), vehicleTicksPerSecond(),
+            p50Nanos / 1_000, p99Nanos / 1_000, p999Nanos / 1_000, maxNanos / 1_000);
+    }
+}
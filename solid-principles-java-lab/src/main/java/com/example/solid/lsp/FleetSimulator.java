@@ -0,0 +1,151 @@
+package com.example.solid.lsp;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+class FleetSimulator {
+    enum ThreadMode { VIRTUAL, PLATFORM }
+
+    private static final Method VIRTUAL_EXECUTOR_FACTORY = findVirtualExecutorFactory();
+
+    private final List<Drivable> vehicles;
+    private final int ticksPerSecond;
+    private final ThreadMode mode;
+    private final int platformThreads;
+
+    private volatile Tick currentTick;
+
+    FleetSimulator(List<? extends Drivable> vehicles, int ticksPerSecond, ThreadMode mode) {
+        this(vehicles, ticksPerSecond, mode, Runtime.getRuntime().availableProcessors());
+    }
+
+    FleetSimulator(List<? extends Drivable> vehicles, int ticksPerSecond, ThreadMode mode, int platformThreads) {
+        if (vehicles == null) {
+            throw new IllegalArgumentException("La flota no puede ser null");
+        }
+        for (Drivable vehicle : vehicles) {
+            if (vehicle == null) {
+                throw new IllegalArgumentException("La flota no puede contener vehículos null");
+            }
+        }
+        if (ticksPerSecond <= 0) {
+            throw new IllegalArgumentException("La frecuencia de ticks debe ser mayor que cero");
+        }
+        if (mode == null) {
+            throw new IllegalArgumentException("El modo de hilos no puede ser null");
+        }
+        if (mode == ThreadMode.VIRTUAL && !isVirtualThreadSupported()) {
+            throw new UnsupportedOperationException("Los hilos virtuales requieren Java 21 o superior");
+        }
+        if (platformThreads <= 0) {
+            throw new IllegalArgumentException("Debe haber al menos un hilo de plataforma");
+        }
+        this.vehicles = new ArrayList<>(vehicles);
+        this.ticksPerSecond = ticksPerSecond;
+        this.mode = mode;
+        this.platformThreads = platformThreads;
+    }
+
+    static boolean isVirtualThreadSupported() {
+        return VIRTUAL_EXECUTOR_FACTORY != null;
+    }
+
+    FleetSimulationReport run(int ticks, int refuelEveryTicks) throws InterruptedException {
+        if (ticks <= 0) {
+            throw new IllegalArgumentException("La simulación debe tener al menos un tick");
+        }
+        if (refuelEveryTicks <= 0) {
+            throw new IllegalArgumentException("El intervalo de recarga debe ser mayor que cero");
+        }
+        LatencyHistogram latencies = new LatencyHistogram();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Runnable> tasks = new ArrayList<>(vehicles.size());
+        for (Drivable vehicle : vehicles) {
+            tasks.add(() -> runVehicleTick(vehicle, latencies, failure));
+        }
+
+        long tickNanos = TimeUnit.SECONDS.toNanos(1) / ticksPerSecond;
+        long lateTicks = 0;
+        ExecutorService executor = newExecutor();
+        long start = System.nanoTime();
+        try {
+            for (int tick = 0; tick < ticks; tick++) {
+                long deadline = start + tick * tickNanos;
+                long now = System.nanoTime();
+                while (now < deadline) {
+                    LockSupport.parkNanos(deadline - now);
+                    now = System.nanoTime();
+                }
+                if (now - deadline > tickNanos) {
+                    lateTicks++;
+                }
+                Tick state = new Tick(now, tick % refuelEveryTicks == 0, new CountDownLatch(tasks.size()));
+                currentTick = state;
+                for (Runnable task : tasks) {
+                    executor.execute(task);
+                }
+                state.remaining.await();
+                if (failure.get() != null) {
+                    throw new IllegalStateException("Falló la simulación en el tick " + tick, failure.get());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+        return new FleetSimulationReport(mode, vehicles.size(), ticks, lateTicks, elapsed, latencies);
+    }
+
+    private void runVehicleTick(Drivable vehicle, LatencyHistogram latencies, AtomicReference<Throwable> failure) {
+        Tick tick = currentTick;
+        try {
+            vehicle.drive();
+            if (tick.refuel && vehicle instanceof Refuelable) {
+                ((Refuelable) vehicle).refuel();
+            }
+        } catch (RuntimeException | Error e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            latencies.record(System.nanoTime() - tick.startNanos);
+            tick.remaining.countDown();
+        }
+    }
+
+    private ExecutorService newExecutor() {
+        if (mode == ThreadMode.PLATFORM) {
+            return Executors.newFixedThreadPool(platformThreads);
+        }
+        try {
+            return (ExecutorService) VIRTUAL_EXECUTOR_FACTORY.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("No se pudo crear el ejecutor de hilos virtuales", e);
+        }
+    }
+
+    private static Method findVirtualExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static final class Tick {
+        private final long startNanos;
+        private final boolean refuel;
+        private final CountDownLatch remaining;
+
+        private Tick(long startNanos, boolean refuel, CountDownLatch remaining) {
+            this.startNanos = startNanos;
+            this.refuel = refuel;
+            this.remaining = remaining;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.solid.lsp;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+class FleetStore {
+    static final byte COMBUSTION = 1;
+    static final byte ELECTRIC = 2;
+    static final double FULL = 1.0;
+
+    private Drivable[] vehicles;
+    private double[] energyLevels;
+    private double[] odometers;
+    private byte[] types;
+    private int size;
+    private IntConsumer energyListener;
+
+    FleetStore() {
+        this(1024);
+    }
+
+    FleetStore(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("La capacidad debe ser mayor que cero");
+        }
+        vehicles = new Drivable[capacity];
+        energyLevels = new double[capacity];
+        odometers = new double[capacity];
+        types = new byte[capacity];
+    }
+
+    int add(Drivable vehicle, double energyLevel) {
+        if (vehicle == null) {
+            throw new IllegalArgumentException("El vehículo no puede ser null");
+        }
+        validateLevel(energyLevel);
+        if (size == vehicles.length) {
+            int newCapacity = size * 2;
+            vehicles = Arrays.copyOf(vehicles, newCapacity);
+            energyLevels = Arrays.copyOf(energyLevels, newCapacity);
+            odometers = Arrays.copyOf(odometers, newCapacity);
+            types = Arrays.copyOf(types, newCapacity);
+        }
+        vehicles[size] = vehicle;
+        energyLevels[size] = energyLevel;
+        types[size] = vehicle instanceof Refuelable ? COMBUSTION : ELECTRIC;
+        return size++;
+    }
+
+    void recordTrip(int index, double kilometers, double energyUsed) {
+        checkIndex(index);
+        if (kilometers < 0 || energyUsed < 0) {
+            throw new IllegalArgumentException("La distancia y la energía consumida no pueden ser negativas");
+        }
+        odometers[index] += kilometers;
+        energyLevels[index] = Math.max(0.0, energyLevels[index] - energyUsed);
+        energyChanged(index);
+    }
+
+    void recordTrips(double kilometers, double energyPerKilometer) {
+        if (kilometers < 0 || energyPerKilometer < 0) {
+            throw new IllegalArgumentException("La distancia y el consumo no pueden ser negativos");
+        }
+        double energyUsed = kilometers * energyPerKilometer;
+        for (int i = 0; i < size; i++) {
+            odometers[i] += kilometers;
+            energyLevels[i] = Math.max(0.0, energyLevels[i] - energyUsed);
+        }
+        if (energyListener != null) {
+            for (int i = 0; i < size; i++) {
+                energyListener.accept(i);
+            }
+        }
+    }
+
+    void setEnergyLevel(int index, double energyLevel) {
+        checkIndex(index);
+        validateLevel(energyLevel);
+        energyLevels[index] = energyLevel;
+        energyChanged(index);
+    }
+
+    void setEnergyListener(IntConsumer listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("El observador de energía no puede ser null");
+        }
+        if (energyListener != null) {
+            throw new IllegalStateException("El almacén de flota ya tiene un observador de energía");
+        }
+        energyListener = listener;
+    }
+
+    double energyLevel(int index) {
+        checkIndex(index);
+        return energyLevels[index];
+    }
+
+    double odometer(int index) {
+        checkIndex(index);
+        return odometers[index];
+    }
+
+    byte type(int index) {
+        checkIndex(index);
+        return types[index];
+    }
+
+    boolean isRefuelable(int index) {
+        return type(index) == COMBUSTION;
+    }
+
+    Drivable vehicle(int index) {
+        checkIndex(index);
+        return vehicles[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void energyChanged(int index) {
+        if (energyListener != null) {
+            energyListener.accept(index);
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Vehículo inexistente: " + index);
+        }
+    }
+
+    private static void validateLevel(double energyLevel) {
+        if (!(energyLevel >= 0.0 && energyLevel <= FULL)) {
+            throw new IllegalArgumentException("El nivel de energía debe estar entre 0 y 1: " + energyLevel);
+        }
+    }
+}
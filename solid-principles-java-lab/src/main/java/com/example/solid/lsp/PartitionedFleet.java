@@ -0,0 +1,111 @@
+package com.example.solid.lsp;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+class PartitionedFleet {
+    static final byte DRIVABLE = 1;
+    static final byte REFUELABLE = 1 << 1;
+
+    private Drivable[] driveOnly = new Drivable[16];
+    private int driveOnlySize;
+    private Drivable[] refuelableDrivers = new Drivable[16];
+    private Refuelable[] refuelables = new Refuelable[16];
+    private int refuelableSize;
+
+    private byte[] capabilities = new byte[16];
+    private int[] partitionSlots = new int[16];
+    private int size;
+
+    int add(Drivable vehicle) {
+        if (vehicle == null) {
+            throw new IllegalArgumentException("El vehículo no puede ser null");
+        }
+        if (size == capabilities.length) {
+            capabilities = Arrays.copyOf(capabilities, size * 2);
+            partitionSlots = Arrays.copyOf(partitionSlots, size * 2);
+        }
+        if (vehicle instanceof Refuelable) {
+            if (refuelableSize == refuelables.length) {
+                refuelableDrivers = Arrays.copyOf(refuelableDrivers, refuelableSize * 2);
+                refuelables = Arrays.copyOf(refuelables, refuelableSize * 2);
+            }
+            refuelableDrivers[refuelableSize] = vehicle;
+            refuelables[refuelableSize] = (Refuelable) vehicle;
+            capabilities[size] = DRIVABLE | REFUELABLE;
+            partitionSlots[size] = refuelableSize++;
+        } else {
+            if (driveOnlySize == driveOnly.length) {
+                driveOnly = Arrays.copyOf(driveOnly, driveOnlySize * 2);
+            }
+            driveOnly[driveOnlySize] = vehicle;
+            capabilities[size] = DRIVABLE;
+            partitionSlots[size] = driveOnlySize++;
+        }
+        return size++;
+    }
+
+    Drivable vehicle(int id) {
+        checkId(id);
+        return (capabilities[id] & REFUELABLE) != 0
+            ? refuelableDrivers[partitionSlots[id]]
+            : driveOnly[partitionSlots[id]];
+    }
+
+    byte capabilities(int id) {
+        checkId(id);
+        return capabilities[id];
+    }
+
+    boolean hasCapability(int id, byte capability) {
+        return (capabilities(id) & capability) == capability;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int driveOnlyCount() {
+        return driveOnlySize;
+    }
+
+    int refuelableCount() {
+        return refuelableSize;
+    }
+
+    void driveAll() {
+        Drivable[] electric = driveOnly;
+        for (int i = 0; i < driveOnlySize; i++) {
+            electric[i].drive();
+        }
+        Drivable[] combustion = refuelableDrivers;
+        for (int i = 0; i < refuelableSize; i++) {
+            combustion[i].drive();
+        }
+    }
+
+    void refuelAll() {
+        Refuelable[] combustion = refuelables;
+        for (int i = 0; i < refuelableSize; i++) {
+            combustion[i].refuel();
+        }
+    }
+
+    void forEachDriveOnly(Consumer<? super Drivable> action) {
+        for (int i = 0; i < driveOnlySize; i++) {
+            action.accept(driveOnly[i]);
+        }
+    }
+
+    void forEachRefuelable(Consumer<? super Refuelable> action) {
+        for (int i = 0; i < refuelableSize; i++) {
+            action.accept(refuelables[i]);
+        }
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Vehículo inexistente: " + id);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.solid.lsp;
+
+import java.util.Arrays;
+
+class RefuelScheduler {
+    private static final int ABSENT = -1;
+
+    private final FleetStore store;
+    private final double threshold;
+    private int[] heap = new int[64];
+    private int[] positions = new int[0];
+    private int heapSize;
+
+    RefuelScheduler(FleetStore store, double threshold) {
+        if (store == null) {
+            throw new IllegalArgumentException("El almacén de flota no puede ser null");
+        }
+        if (!(threshold > 0.0 && threshold <= FleetStore.FULL)) {
+            throw new IllegalArgumentException("El umbral de recarga debe estar entre 0 y 1: " + threshold);
+        }
+        this.store = store;
+        this.threshold = threshold;
+        store.setEnergyListener(this::update);
+    }
+
+    boolean enqueue(int index) {
+        if (!store.isRefuelable(index)) {
+            return false;
+        }
+        ensureCapacity();
+        int position = positions[index];
+        if (position != ABSENT) {
+            siftUp(position);
+            siftDown(positions[index]);
+            return true;
+        }
+        if (heapSize == heap.length) {
+            heap = Arrays.copyOf(heap, heapSize * 2);
+        }
+        heap[heapSize] = index;
+        positions[index] = heapSize;
+        siftUp(heapSize++);
+        return true;
+    }
+
+    void update(int index) {
+        if (!store.isRefuelable(index)) {
+            return;
+        }
+        ensureCapacity();
+        boolean queued = positions[index] != ABSENT;
+        if (store.energyLevel(index) < threshold) {
+            enqueue(index);
+        } else if (queued) {
+            removeAt(positions[index]);
+        }
+    }
+
+    int scan() {
+        for (int i = 0; i < store.size(); i++) {
+            update(i);
+        }
+        return heapSize;
+    }
+
+    int dispatch(int maxBatch) {
+        if (maxBatch <= 0) {
+            throw new IllegalArgumentException("El lote de recarga debe ser mayor que cero");
+        }
+        int dispatched = 0;
+        while (dispatched < maxBatch && heapSize > 0) {
+            int index = heap[0];
+            removeAt(0);
+            ((Refuelable) store.vehicle(index)).refuel();
+            store.setEnergyLevel(index, FleetStore.FULL);
+            dispatched++;
+        }
+        return dispatched;
+    }
+
+    int peek() {
+        return heapSize == 0 ? ABSENT : heap[0];
+    }
+
+    boolean isQueued(int index) {
+        return index >= 0 && index < positions.length && positions[index] != ABSENT;
+    }
+
+    int queued() {
+        return heapSize;
+    }
+
+    private void removeAt(int position) {
+        int removed = heap[position];
+        positions[removed] = ABSENT;
+        heapSize--;
+        if (position == heapSize) {
+            return;
+        }
+        int last = heap[heapSize];
+        heap[position] = last;
+        positions[last] = position;
+        siftUp(position);
+        siftDown(positions[last]);
+    }
+
+    private void siftUp(int position) {
+        int index = heap[position];
+        double level = store.energyLevel(index);
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            int parentIndex = heap[parent];
+            if (store.energyLevel(parentIndex) <= level) {
+                break;
+            }
+            heap[position] = parentIndex;
+            positions[parentIndex] = position;
+            position = parent;
+        }
+        heap[position] = index;
+        positions[index] = position;
+    }
+
+    private void siftDown(int position) {
+        int index = heap[position];
+        double level = store.energyLevel(index);
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && store.energyLevel(heap[child + 1]) < store.energyLevel(heap[child])) {
+                child++;
+            }
+            int childIndex = heap[child];
+            if (store.energyLevel(childIndex) >= level) {
+                break;
+            }
+            heap[position] = childIndex;
+            positions[childIndex] = position;
+            position = child;
+        }
+        heap[position] = index;
+        positions[index] = position;
+    }
+
+    private void ensureCapacity() {
+        if (positions.length < store.size()) {
+            int previous = positions.length;
+            positions = Arrays.copyOf(positions, Math.max(store.size(), previous * 2));
+            Arrays.fill(positions, previous, positions.length, ABSENT);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.solid.ocp;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public class DiscountBenchmark {
+    private static final int DEFAULT_PRICES = 1_000_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int priceCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PRICES;
+        double[] prices = new double[priceCount];
+        long[] priceCents = new long[priceCount];
+        for (int i = 0; i < priceCount; i++) {
+            priceCents[i] = (i * 7919L) % 1_000_000;
+            prices[i] = priceCents[i] / 100.0;
+        }
+
+        for (int round = 0; round < ROUNDS; round++) {
+            benchmarkMoney(prices, priceCents);
+        }
+        for (int round = 0; round < ROUNDS; round++) {
+            benchmarkPipeline(prices);
+        }
+        for (int round = 0; round < ROUNDS; round++) {
+            benchmarkBulk(prices);
+        }
+        for (int round = 0; round < ROUNDS; round++) {
+            benchmarkDirtyFeed(prices);
+        }
+    }
+
+    static void benchmarkMoney(double[] prices, long[] priceCents) {
+        DiscountCalculator calculator = new DiscountCalculator(new RegularCustomerDiscount());
+
+        long start = System.nanoTime();
+        double doubleTotal = 0.0;
+        for (double price : prices) {
+            doubleTotal += calculator.totalAfterDiscount(price);
+        }
+        report("Descuento en double (" + doubleTotal + ")", prices.length, System.nanoTime() - start);
+
+        BigDecimal rate = new BigDecimal("0.1");
+        start = System.nanoTime();
+        BigDecimal decimalTotal = BigDecimal.ZERO;
+        for (double price : prices) {
+            BigDecimal decimalPrice = BigDecimal.valueOf(price);
+            BigDecimal discount = decimalPrice.multiply(rate).setScale(2, RoundingMode.HALF_EVEN);
+            decimalTotal = decimalTotal.add(decimalPrice.subtract(discount));
+        }
+        report("Descuento en BigDecimal (" + decimalTotal + ")", prices.length, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        long centsTotal = 0;
+        for (long price : priceCents) {
+            centsTotal += calculator.totalAfterDiscountCents(price);
+        }
+        report("Descuento en centavos (" + centsTotal + ")", priceCents.length, System.nanoTime() - start);
+    }
+
+    static void benchmarkPipeline(double[] prices) {
+        DiscountStrategy naive = DiscountPipeline.stack(
+            new RegularCustomerDiscount(), new VipCustomerDiscount(),
+            new PercentageDiscount(500), new RegularCustomerDiscount(), new PercentageDiscount(250));
+        DiscountStrategy compiled = DiscountPipeline.compile(naive);
+
+        long start = System.nanoTime();
+        double naiveTotal = 0.0;
+        for (double price : prices) {
+            naiveTotal += naive.calculateDiscount(price);
+        }
+        report("Cadena anidada de 5 descuentos (" + naiveTotal + ")", prices.length, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        double compiledTotal = 0.0;
+        for (double price : prices) {
+            compiledTotal += compiled.calculateDiscount(price);
+        }
+        report("Cadena compilada de 5 descuentos (" + compiledTotal + ")", prices.length, System.nanoTime() - start);
+    }
+
+    static void benchmarkBulk(double[] prices) {
+        DiscountCalculator calculator = new DiscountCalculator(new VipCustomerDiscount());
+        double[] discounts = new double[prices.length];
+        double[] totals = new double[prices.length];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < prices.length; i++) {
+            discounts[i] = calculator.calculate(prices[i]);
+            totals[i] = calculator.totalAfterDiscount(prices[i]);
+        }
+        report("Descuento precio a precio (" + totals[prices.length - 1] + ")", prices.length, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        calculator.calculateAll(prices, discounts, totals);
+        report("Descuento en bloque (" + totals[prices.length - 1] + ")", prices.length, System.nanoTime() - start);
+    }
+
+    static void benchmarkDirtyFeed(double[] cleanPrices) {
+        double[] prices = cleanPrices.clone();
+        for (int i = 0; i < prices.length; i += 10) {
+            prices[i] = -prices[i] - 1;
+        }
+        DiscountCalculator calculator = new DiscountCalculator(new RegularCustomerDiscount());
+        double[] discounts = new double[prices.length];
+        double[] totals = new double[prices.length];
+
+        long start = System.nanoTime();
+        int rejected = 0;
+        for (int i = 0; i < prices.length; i++) {
+            try {
+                discounts[i] = calculator.calculate(prices[i]);
+            } catch (IllegalArgumentException e) {
+                rejected++;
+            }
+        }
+        report("Feed sucio con excepciones (" + rejected + " inválidos)", prices.length, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        PriceValidationReport validation = calculator.calculateValid(prices, discounts, totals);
+        report("Feed sucio con reporte (" + validation.invalidCount() + " inválidos)", prices.length, System.nanoTime() - start);
+    }
+
+    static void report(String name, long operations, long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("%-50s %,12d ops %10.1f ms %,15.0f ops/s%n",
+            name, operations, elapsedNanos / 1_000_000.0, operations / seconds);
+    }
+}
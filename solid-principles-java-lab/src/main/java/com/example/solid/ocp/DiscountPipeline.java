@@ -0,0 +1,115 @@
+package com.example.solid.ocp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+final class DiscountPipeline implements DiscountStrategy {
+    private final double[] rates;
+    private final long[] basisPoints;
+    private final DiscountStrategy[] stages;
+    private final boolean percentagesOnly;
+
+    private DiscountPipeline(List<DiscountStrategy> chain) {
+        int size = chain.size();
+        rates = new double[size];
+        basisPoints = new long[size];
+        stages = new DiscountStrategy[size];
+        boolean onlyPercentages = true;
+        for (int i = 0; i < size; i++) {
+            DiscountStrategy stage = chain.get(i);
+            if (stage instanceof PercentageDiscount) {
+                rates[i] = ((PercentageDiscount) stage).getRate();
+                basisPoints[i] = ((PercentageDiscount) stage).getBasisPoints();
+            } else {
+                stages[i] = stage instanceof StackedDiscount ? compile(stage) : stage;
+                onlyPercentages = false;
+            }
+        }
+        this.percentagesOnly = onlyPercentages;
+    }
+
+    static DiscountStrategy stack(DiscountStrategy first, DiscountStrategy... rest) {
+        if (first == null || rest == null) {
+            throw new IllegalArgumentException("Las estrategias combinadas no pueden ser null");
+        }
+        DiscountStrategy chain = first;
+        for (DiscountStrategy next : rest) {
+            chain = new StackedDiscount(chain, next);
+        }
+        return chain;
+    }
+
+    static DiscountPipeline compile(DiscountStrategy strategy) {
+        if (strategy == null) {
+            throw new IllegalArgumentException("La estrategia no puede ser null");
+        }
+        if (strategy instanceof DiscountPipeline) {
+            return (DiscountPipeline) strategy;
+        }
+        List<DiscountStrategy> chain = new ArrayList<>();
+        DiscountStrategy node = strategy;
+        while (node instanceof StackedDiscount) {
+            chain.add(((StackedDiscount) node).getExtra());
+            node = ((StackedDiscount) node).getBase();
+        }
+        chain.add(node);
+        Collections.reverse(chain);
+        return new DiscountPipeline(chain);
+    }
+
+    @Override
+    public double calculateDiscount(double price) {
+        validatePrice(price);
+        if (percentagesOnly) {
+            double total = price * rates[0];
+            for (int i = 1; i < rates.length; i++) {
+                double remaining = price - total;
+                if (remaining < 0) {
+                    validatePrice(remaining);
+                }
+                total += remaining * rates[i];
+            }
+            return total;
+        }
+        double total = stageDiscount(0, price);
+        for (int i = 1; i < rates.length; i++) {
+            total += stageDiscount(i, price - total);
+        }
+        return total;
+    }
+
+    @Override
+    public long calculateDiscountCents(long priceCents) {
+        validatePriceCents(priceCents);
+        long total = 0;
+        for (int i = 0; i < stages.length; i++) {
+            long remaining = priceCents - total;
+            if (stages[i] == null) {
+                validatePriceCents(remaining);
+                total += DiscountStrategy.applyBasisPoints(remaining, basisPoints[i]);
+            } else {
+                total += stages[i].calculateDiscountCents(remaining);
+            }
+        }
+        return total;
+    }
+
+    private double stageDiscount(int index, double price) {
+        if (stages[index] != null) {
+            return stages[index].calculateDiscount(price);
+        }
+        if (price < 0) {
+            validatePrice(price);
+        }
+        return price * rates[index];
+    }
+
+    int stageCount() {
+        return stages.length;
+    }
+
+    boolean isPercentagesOnly() {
+        return percentagesOnly;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.solid.ocp;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+class DiscountStrategyRegistry implements ResolvableStrategy {
+    private static final int DEFAULT_RETAINED_VERSIONS = 16;
+
+    private final AtomicReference<Version> current;
+    private final Map<Long, Version> versions = new ConcurrentHashMap<>();
+    private final int retainedVersions;
+
+    DiscountStrategyRegistry(DiscountStrategy initialStrategy) {
+        this(initialStrategy, DEFAULT_RETAINED_VERSIONS);
+    }
+
+    DiscountStrategyRegistry(DiscountStrategy initialStrategy, int retainedVersions) {
+        if (retainedVersions <= 0) {
+            throw new IllegalArgumentException("El registro debe conservar al menos una versión");
+        }
+        this.retainedVersions = retainedVersions;
+        Version first = new Version(1, requireStrategy(initialStrategy));
+        this.current = new AtomicReference<>(first);
+        versions.put(first.getNumber(), first);
+    }
+
+    long publish(DiscountStrategy strategy) {
+        requireStrategy(strategy);
+        while (true) {
+            Version previous = current.get();
+            Version next = new Version(previous.getNumber() + 1, strategy);
+            if (current.compareAndSet(previous, next)) {
+                versions.put(next.getNumber(), next);
+                versions.remove(next.getNumber() - retainedVersions);
+                return next.getNumber();
+            }
+        }
+    }
+
+    Version current() {
+        return current.get();
+    }
+
+    long currentVersion() {
+        return current.get().getNumber();
+    }
+
+    long invocations(long version) {
+        Version published = versions.get(version);
+        return published == null ? 0 : published.invocationCount();
+    }
+
+    int retainedVersionCount() {
+        return versions.size();
+    }
+
+    @Override
+    public DiscountStrategy resolve(int invocations) {
+        Version version = current.get();
+        version.recordInvocations(invocations);
+        return version.getStrategy();
+    }
+
+    @Override
+    public double calculateDiscount(double price) {
+        Version version = current.get();
+        version.recordInvocations(1);
+        return version.getStrategy().calculateDiscount(price);
+    }
+
+    @Override
+    public long calculateDiscountCents(long priceCents) {
+        Version version = current.get();
+        version.recordInvocations(1);
+        return version.getStrategy().calculateDiscountCents(priceCents);
+    }
+
+    private static DiscountStrategy requireStrategy(DiscountStrategy strategy) {
+        if (strategy == null) {
+            throw new IllegalArgumentException("La estrategia de descuento no puede ser null");
+        }
+        return strategy;
+    }
+
+    static final class Version {
+        private final long number;
+        private final DiscountStrategy strategy;
+        private final LongAdder invocations = new LongAdder();
+
+        private Version(long number, DiscountStrategy strategy) {
+            this.number = number;
+            this.strategy = strategy;
+        }
+
+        long getNumber() {
+            return number;
+        }
+
+        DiscountStrategy getStrategy() {
+            return strategy;
+        }
+
+        void recordInvocations(long count) {
+            invocations.add(count);
+        }
+
+        long invocationCount() {
+            return invocations.sum();
+        }
+    }
+}
@@ -1,38 +1,159 @@
 package com.example.solid.ocp;
 
+import java.nio.DoubleBuffer;
+import java.util.BitSet;
+
 interface DiscountStrategy {
+    long BASIS_POINTS = 10_000;
+
     double calculateDiscount(double price);
 
+    default long calculateDiscountCents(long priceCents) {
+        validatePriceCents(priceCents);
+        double discountCents = Math.rint(calculateDiscount(priceCents / 100.0) * 100);
+        if (!(Math.abs(discountCents) < 0x1p63)) {
+            throw new IllegalArgumentException(
+                "El descuento excede el rango admitido en centavos. Precio: " + priceCents + " centavos"
+            );
+        }
+        return (long) discountCents;
+    }
+
+    default boolean isValidPrice(double price) {
+        return !(price < 0);
+    }
+
     default void validatePrice(double price) {
-        if (price < 0) {
+        if (!isValidPrice(price)) {
             throw new IllegalArgumentException(
                 "El precio no puede ser negativo. Precio: " + price
             );
         }
     }
+
+    default PriceValidationReport validatePrices(double[] prices) {
+        if (prices == null) {
+            throw new IllegalArgumentException("Los precios no pueden ser null");
+        }
+        BitSet invalid = new BitSet(prices.length);
+        for (int i = 0; i < prices.length; i++) {
+            if (!isValidPrice(prices[i])) {
+                invalid.set(i);
+            }
+        }
+        return new PriceValidationReport(invalid, prices.length);
+    }
+
+    default void calculateDiscounts(double[] prices, int from, int to, double[] discounts, double[] totals) {
+        for (int i = from; i < to; i++) {
+            double price = prices[i];
+            double discount = calculateDiscount(price);
+            discounts[i] = discount;
+            totals[i] = price - discount;
+        }
+    }
+
+    default void validatePriceCents(long priceCents) {
+        if (priceCents < 0) {
+            throw new IllegalArgumentException(
+                "El precio no puede ser negativo. Precio: " + priceCents + " centavos"
+            );
+        }
+    }
+
+    static long applyBasisPoints(long cents, long basisPoints) {
+        long product = Math.multiplyExact(cents, basisPoints);
+        long quotient = Math.floorDiv(product, BASIS_POINTS);
+        long remainder = Math.floorMod(product, BASIS_POINTS);
+        long complement = BASIS_POINTS - remainder;
+        if (remainder > complement || (remainder == complement && (quotient & 1) != 0)) {
+            quotient++;
+        }
+        return quotient;
+    }
 }
 
-class RegularCustomerDiscount implements DiscountStrategy {
+class PercentageDiscount implements DiscountStrategy {
+    private final long basisPoints;
+    private final double rate;
+
+    PercentageDiscount(long basisPoints) {
+        if (basisPoints < 0 || basisPoints > BASIS_POINTS) {
+            throw new IllegalArgumentException(
+                "El porcentaje debe estar entre 0 y " + BASIS_POINTS + " puntos básicos. Valor: " + basisPoints
+            );
+        }
+        this.basisPoints = basisPoints;
+        this.rate = basisPoints / (double) BASIS_POINTS;
+    }
+
     @Override
-    public double calculateDiscount(double price) {
+    public final double calculateDiscount(double price) {
         validatePrice(price);
-        return price * 0.1;
+        return price * rate;
     }
-}
 
-class VipCustomerDiscount implements DiscountStrategy {
     @Override
-    public double calculateDiscount(double price) {
-        validatePrice(price);
-        return price * 0.2;
+    public final boolean isValidPrice(double price) {
+        return DiscountStrategy.super.isValidPrice(price);
+    }
+
+    @Override
+    public final void validatePrice(double price) {
+        DiscountStrategy.super.validatePrice(price);
+    }
+
+    @Override
+    public final long calculateDiscountCents(long priceCents) {
+        validatePriceCents(priceCents);
+        return DiscountStrategy.applyBasisPoints(priceCents, basisPoints);
+    }
+
+    @Override
+    public final void calculateDiscounts(double[] prices, int from, int to, double[] discounts, double[] totals) {
+        for (int i = from; i < to; i++) {
+            if (!isValidPrice(prices[i])) {
+                validatePrice(prices[i]);
+            }
+        }
+        for (int i = from; i < to; i++) {
+            double price = prices[i];
+            double discount = price * rate;
+            discounts[i] = discount;
+            totals[i] = price - discount;
+        }
+    }
+
+    double getRate() {
+        return rate;
+    }
+
+    long getBasisPoints() {
+        return basisPoints;
+    }
+}
+
+class RegularCustomerDiscount extends PercentageDiscount {
+    RegularCustomerDiscount() {
+        super(1_000);
+    }
+}
+
+class VipCustomerDiscount extends PercentageDiscount {
+    VipCustomerDiscount() {
+        super(2_000);
     }
 }
 
 class DiscountCalculator {
-    private DiscountStrategy discountStrategy;
+    private final DiscountStrategy discountStrategy;
+    private final ResolvableStrategy resolvableStrategy;
 
     DiscountCalculator(DiscountStrategy discountStrategy) {
         this.discountStrategy = discountStrategy;
+        this.resolvableStrategy = discountStrategy instanceof ResolvableStrategy
+            ? (ResolvableStrategy) discountStrategy
+            : null;
     }
 
     double calculate(double price) {
@@ -42,6 +163,98 @@ class DiscountCalculator {
     double totalAfterDiscount(double price) {
         return price - calculate(price);
     }
+
+    long calculateCents(long priceCents) {
+        return discountStrategy.calculateDiscountCents(priceCents);
+    }
+
+    long totalAfterDiscountCents(long priceCents) {
+        return priceCents - calculateCents(priceCents);
+    }
+
+    void calculateAll(double[] prices, double[] discounts, double[] totals) {
+        if (prices == null) {
+            throw new IllegalArgumentException("Los precios no pueden ser null");
+        }
+        calculateAll(prices, 0, prices.length, discounts, totals);
+    }
+
+    void calculateAll(double[] prices, int offset, int length, double[] discounts, double[] totals) {
+        if (prices == null || discounts == null || totals == null) {
+            throw new IllegalArgumentException("Los arreglos de precios y resultados no pueden ser null");
+        }
+        if (offset < 0 || length < 0 || length > prices.length - offset) {
+            throw new IndexOutOfBoundsException("Rango fuera de los precios: " + offset + ", " + length);
+        }
+        if (length > discounts.length - offset || length > totals.length - offset) {
+            throw new IllegalArgumentException(
+                "Los arreglos de resultados deben tener al menos " + (offset + length) + " posiciones"
+            );
+        }
+        resolveStrategy(length).calculateDiscounts(prices, offset, offset + length, discounts, totals);
+    }
+
+    void calculateAll(DoubleBuffer prices, DoubleBuffer discounts, DoubleBuffer totals) {
+        if (prices == null || discounts == null || totals == null) {
+            throw new IllegalArgumentException("Los búferes de precios y resultados no pueden ser null");
+        }
+        int length = prices.remaining();
+        if (discounts.remaining() < length || totals.remaining() < length) {
+            throw new IllegalArgumentException(
+                "Los búferes de resultados deben tener al menos " + length + " posiciones libres"
+            );
+        }
+        if (prices.hasArray() && discounts.hasArray() && totals.hasArray()
+                && prices.arrayOffset() + prices.position() == discounts.arrayOffset() + discounts.position()
+                && prices.arrayOffset() + prices.position() == totals.arrayOffset() + totals.position()) {
+            calculateAll(prices.array(), prices.arrayOffset() + prices.position(), length,
+                discounts.array(), totals.array());
+        } else {
+            int priceStart = prices.position();
+            int discountStart = discounts.position();
+            int totalStart = totals.position();
+            DiscountStrategy strategy = resolveStrategy(length);
+            for (int i = 0; i < length; i++) {
+                double price = prices.get(priceStart + i);
+                double discount = strategy.calculateDiscount(price);
+                discounts.put(discountStart + i, discount);
+                totals.put(totalStart + i, price - discount);
+            }
+        }
+        prices.position(prices.position() + length);
+        discounts.position(discounts.position() + length);
+        totals.position(totals.position() + length);
+    }
+
+    PriceValidationReport calculateValid(double[] prices, double[] discounts, double[] totals) {
+        if (prices == null || discounts == null || totals == null) {
+            throw new IllegalArgumentException("Los arreglos de precios y resultados no pueden ser null");
+        }
+        if (discounts.length < prices.length || totals.length < prices.length) {
+            throw new IllegalArgumentException(
+                "Los arreglos de resultados deben tener al menos " + prices.length + " posiciones"
+            );
+        }
+        DiscountStrategy strategy = resolveStrategy(prices.length);
+        PriceValidationReport report = strategy.validatePrices(prices);
+        int from = 0;
+        while (from < prices.length) {
+            int invalid = report.nextInvalid(from);
+            int to = invalid < 0 ? prices.length : invalid;
+            strategy.calculateDiscounts(prices, from, to, discounts, totals);
+            if (invalid < 0) {
+                break;
+            }
+            discounts[invalid] = Double.NaN;
+            totals[invalid] = Double.NaN;
+            from = invalid + 1;
+        }
+        return report;
+    }
+
+    private DiscountStrategy resolveStrategy(int invocations) {
+        return resolvableStrategy == null ? discountStrategy : resolvableStrategy.resolve(invocations);
+    }
 }
 
 public class GoodExample {
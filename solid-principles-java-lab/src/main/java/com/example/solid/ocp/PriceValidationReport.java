@@ -0,0 +1,56 @@
+package com.example.solid.ocp;
+
+import java.util.BitSet;
+
+class PriceValidationReport {
+    private final BitSet invalidPositions;
+    private final int length;
+
+    PriceValidationReport(BitSet invalidPositions, int length) {
+        if (invalidPositions == null) {
+            throw new IllegalArgumentException("Las posiciones inválidas no pueden ser null");
+        }
+        this.invalidPositions = invalidPositions;
+        this.length = length;
+    }
+
+    boolean isValid(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Posición fuera del lote: " + index);
+        }
+        return !invalidPositions.get(index);
+    }
+
+    boolean hasErrors() {
+        return !invalidPositions.isEmpty();
+    }
+
+    int invalidCount() {
+        return invalidPositions.cardinality();
+    }
+
+    int validCount() {
+        return length - invalidCount();
+    }
+
+    int firstInvalid() {
+        return invalidPositions.nextSetBit(0);
+    }
+
+    int nextInvalid(int fromIndex) {
+        return invalidPositions.nextSetBit(fromIndex);
+    }
+
+    int length() {
+        return length;
+    }
+
+    BitSet invalidPositions() {
+        return (BitSet) invalidPositions.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "PriceValidationReport{length=" + length + ", invalid=" + invalidPositions + "}";
+    }
+}
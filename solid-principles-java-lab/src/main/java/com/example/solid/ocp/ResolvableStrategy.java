@@ -0,0 +1,5 @@
+package com.example.solid.ocp;
+
+interface ResolvableStrategy extends DiscountStrategy {
+    DiscountStrategy resolve(int invocations);
+}
@@ -0,0 +1,36 @@
+package com.example.solid.ocp;
+
+class StackedDiscount implements DiscountStrategy {
+    private final DiscountStrategy base;
+    private final DiscountStrategy extra;
+
+    StackedDiscount(DiscountStrategy base, DiscountStrategy extra) {
+        if (base == null || extra == null) {
+            throw new IllegalArgumentException("Las estrategias combinadas no pueden ser null");
+        }
+        this.base = base;
+        this.extra = extra;
+    }
+
+    @Override
+    public double calculateDiscount(double price) {
+        validatePrice(price);
+        double first = base.calculateDiscount(price);
+        return first + extra.calculateDiscount(price - first);
+    }
+
+    @Override
+    public long calculateDiscountCents(long priceCents) {
+        validatePriceCents(priceCents);
+        long first = base.calculateDiscountCents(priceCents);
+        return first + extra.calculateDiscountCents(priceCents - first);
+    }
+
+    DiscountStrategy getBase() {
+        return base;
+    }
+
+    DiscountStrategy getExtra() {
+        return extra;
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.solid.ocp;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+class TieredDiscountRules {
+    private static final long BASIS_POINTS = DiscountStrategy.BASIS_POINTS;
+
+    private final ConcurrentHashMap<String, SegmentIndex> segments = new ConcurrentHashMap<>();
+
+    void addRule(String segment, double minPrice, double maxPrice, long basisPoints) {
+        requireSegment(segment);
+        if (!(minPrice >= 0) || !(maxPrice > minPrice)) {
+            throw new IllegalArgumentException(
+                "La banda de precios debe cumplir 0 <= mínimo < máximo. Banda: [" + minPrice + ", " + maxPrice + ")"
+            );
+        }
+        if (basisPoints < 0 || basisPoints > BASIS_POINTS) {
+            throw new IllegalArgumentException(
+                "El porcentaje debe estar entre 0 y " + BASIS_POINTS + " puntos básicos. Valor: " + basisPoints
+            );
+        }
+        segments.compute(segment, (key, index) ->
+            (index == null ? SegmentIndex.EMPTY : index).insert(minPrice, maxPrice, basisPoints));
+    }
+
+    boolean removeRule(String segment, double minPrice) {
+        requireSegment(segment);
+        boolean[] removed = {false};
+        segments.computeIfPresent(segment, (key, index) -> {
+            int position = Arrays.binarySearch(index.lower, minPrice);
+            if (position < 0) {
+                return index;
+            }
+            removed[0] = true;
+            SegmentIndex remaining = index.remove(position);
+            return remaining.size() == 0 ? null : remaining;
+        });
+        return removed[0];
+    }
+
+    long basisPointsFor(String segment, double price) {
+        SegmentIndex index = segments.get(segment);
+        return index == null ? 0 : index.basisPointsFor(price);
+    }
+
+    double rateFor(String segment, double price) {
+        return basisPointsFor(segment, price) / (double) BASIS_POINTS;
+    }
+
+    int ruleCount(String segment) {
+        SegmentIndex index = segments.get(segment);
+        return index == null ? 0 : index.size();
+    }
+
+    DiscountStrategy forSegment(String segment) {
+        requireSegment(segment);
+        return new SegmentDiscount(this, segment);
+    }
+
+    private static void requireSegment(String segment) {
+        if (segment == null || segment.trim().isEmpty()) {
+            throw new IllegalArgumentException("El segmento no puede ser nulo o vacío");
+        }
+    }
+
+    private static final class SegmentIndex {
+        private static final SegmentIndex EMPTY = new SegmentIndex(new double[0], new double[0], new long[0]);
+
+        private final double[] lower;
+        private final double[] upper;
+        private final long[] basisPoints;
+
+        private SegmentIndex(double[] lower, double[] upper, long[] basisPoints) {
+            this.lower = lower;
+            this.upper = upper;
+            this.basisPoints = basisPoints;
+        }
+
+        private int size() {
+            return lower.length;
+        }
+
+        private long basisPointsFor(double price) {
+            int low = 0;
+            int high = lower.length - 1;
+            int match = -1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (lower[middle] <= price) {
+                    match = middle;
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return match >= 0 && price < upper[match] ? basisPoints[match] : 0;
+        }
+
+        private SegmentIndex insert(double minPrice, double maxPrice, long rate) {
+            int position = Arrays.binarySearch(lower, minPrice);
+            if (position >= 0) {
+                throw overlap(minPrice, maxPrice);
+            }
+            position = -position - 1;
+            if ((position > 0 && upper[position - 1] > minPrice)
+                    || (position < lower.length && lower[position] < maxPrice)) {
+                throw overlap(minPrice, maxPrice);
+            }
+            int size = lower.length;
+            double[] newLower = new double[size + 1];
+            double[] newUpper = new double[size + 1];
+            long[] newBasisPoints = new long[size + 1];
+            System.arraycopy(lower, 0, newLower, 0, position);
+            System.arraycopy(upper, 0, newUpper, 0, position);
+            System.arraycopy(basisPoints, 0, newBasisPoints, 0, position);
+            newLower[position] = minPrice;
+            newUpper[position] = maxPrice;
+            newBasisPoints[position] = rate;
+            System.arraycopy(lower, position, newLower, position + 1, size - position);
+            System.arraycopy(upper, position, newUpper, position + 1, size - position);
+            System.arraycopy(basisPoints, position, newBasisPoints, position + 1, size - position);
+            return new SegmentIndex(newLower, newUpper, newBasisPoints);
+        }
+
+        private SegmentIndex remove(int position) {
+            int size = lower.length;
+            double[] newLower = new double[size - 1];
+            double[] newUpper = new double[size - 1];
+            long[] newBasisPoints = new long[size - 1];
+            System.arraycopy(lower, 0, newLower, 0, position);
+            System.arraycopy(upper, 0, newUpper, 0, position);
+            System.arraycopy(basisPoints, 0, newBasisPoints, 0, position);
+            System.arraycopy(lower, position + 1, newLower, position, size - position - 1);
+            System.arraycopy(upper, position + 1, newUpper, position, size - position - 1);
+            System.arraycopy(basisPoints, position + 1, newBasisPoints, position, size - position - 1);
+            return new SegmentIndex(newLower, newUpper, newBasisPoints);
+        }
+
+        private static IllegalArgumentException overlap(double minPrice, double maxPrice) {
+            return new IllegalArgumentException(
+                "La banda [" + minPrice + ", " + maxPrice + ") se solapa con una regla existente"
+            );
+        }
+    }
+
+    private static final class SegmentDiscount implements DiscountStrategy {
+        private final TieredDiscountRules rules;
+        private final String segment;
+
+        private SegmentDiscount(TieredDiscountRules rules, String segment) {
+            this.rules = rules;
+            this.segment = segment;
+        }
+
+        @Override
+        public double calculateDiscount(double price) {
+            validatePrice(price);
+            return price * rules.rateFor(segment, price);
+        }
+
+        @Override
+        public long calculateDiscountCents(long priceCents) {
+            validatePriceCents(priceCents);
+            return DiscountStrategy.applyBasisPoints(priceCents, rules.basisPointsFor(segment, priceCents / 100.0));
+        }
+    }
+}
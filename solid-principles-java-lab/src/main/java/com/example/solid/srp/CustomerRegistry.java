@@ -0,0 +1,107 @@
+package com.example.solid.srp;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+class CustomerRegistry {
+    static final int NOT_REGISTERED = -1;
+
+    private final int maxCustomers;
+    private final int maxAliases;
+    private final ConcurrentHashMap<String, Entry> customers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Entry> aliases = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<String> names;
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    CustomerRegistry(int maxCustomers) {
+        this(maxCustomers, maxCustomers * 3);
+    }
+
+    CustomerRegistry(int maxCustomers, int maxAliases) {
+        if (maxCustomers <= 0) {
+            throw new IllegalArgumentException("El registro debe admitir al menos un cliente");
+        }
+        if (maxAliases < 0) {
+            throw new IllegalArgumentException("El número de alias no puede ser negativo");
+        }
+        this.maxCustomers = maxCustomers;
+        this.maxAliases = maxAliases;
+        this.names = new AtomicReferenceArray<>(maxCustomers);
+    }
+
+    String intern(String customer) {
+        return resolve(customer).name;
+    }
+
+    int idOf(String customer) {
+        return resolve(customer).id;
+    }
+
+    String nameOf(int id) {
+        if (id < 0 || id >= size()) {
+            throw new IndexOutOfBoundsException("Cliente inexistente: " + id);
+        }
+        return names.get(id);
+    }
+
+    int size() {
+        return Math.min(nextId.get(), maxCustomers);
+    }
+
+    int capacity() {
+        return maxCustomers;
+    }
+
+    private Entry resolve(String customer) {
+        if (customer == null) {
+            throw new IllegalArgumentException(Invoice.INVALID_CUSTOMER_MESSAGE);
+        }
+        Entry entry = customers.get(customer);
+        if (entry == null) {
+            entry = aliases.get(customer);
+        }
+        if (entry != null) {
+            return entry;
+        }
+        String trimmed = customer.trim();
+        if (trimmed.isEmpty()) {
+            throw new IllegalArgumentException(Invoice.INVALID_CUSTOMER_MESSAGE);
+        }
+        entry = customers.get(trimmed);
+        if (entry == null) {
+            entry = register(trimmed);
+            if (entry == null) {
+                return new Entry(trimmed, NOT_REGISTERED);
+            }
+        }
+        if (trimmed.length() != customer.length() && aliases.mappingCount() < maxAliases) {
+            aliases.putIfAbsent(customer, entry);
+        }
+        return entry;
+    }
+
+    private Entry register(String name) {
+        return customers.computeIfAbsent(name, key -> {
+            int id;
+            do {
+                id = nextId.get();
+                if (id >= maxCustomers) {
+                    return null;
+                }
+            } while (!nextId.compareAndSet(id, id + 1));
+            names.set(id, key);
+            return new Entry(key, id);
+        });
+    }
+
+    private static final class Entry {
+        private final String name;
+        private final int id;
+
+        private Entry(String name, int id) {
+            this.name = name;
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.solid.srp;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+class CustomerTotals {
+    private String[] keys;
+    private long[] totalCents;
+    private long[] invoiceCounts;
+    private int size;
+
+    CustomerTotals() {
+        this(16);
+    }
+
+    CustomerTotals(int expectedCustomers) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedCustomers * 2 - 1)) << 1;
+        keys = new String[capacity];
+        totalCents = new long[capacity];
+        invoiceCounts = new long[capacity];
+    }
+
+    void add(Invoice invoice) {
+        add(invoice.getCustomerName(), invoice.calculateTotalCents(), 1);
+    }
+
+    void add(String customer, long cents, long invoices) {
+        int slot = slotOf(customer);
+        if (keys[slot] == null) {
+            keys[slot] = customer;
+            if (++size * 2 > keys.length) {
+                resize();
+                slot = slotOf(customer);
+            }
+        }
+        totalCents[slot] += cents;
+        invoiceCounts[slot] += invoices;
+    }
+
+    void merge(CustomerTotals other) {
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.keys[i] != null) {
+                add(other.keys[i], other.totalCents[i], other.invoiceCounts[i]);
+            }
+        }
+    }
+
+    long totalCents(String customer) {
+        int slot = slotOf(customer);
+        return keys[slot] == null ? 0 : totalCents[slot];
+    }
+
+    double total(String customer) {
+        return totalCents(customer) / 100.0;
+    }
+
+    long invoiceCount(String customer) {
+        int slot = slotOf(customer);
+        return keys[slot] == null ? 0 : invoiceCounts[slot];
+    }
+
+    int size() {
+        return size;
+    }
+
+    Map<String, Long> toMap() {
+        Map<String, Long> totals = new LinkedHashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                totals.put(keys[i], totalCents[i]);
+            }
+        }
+        return totals;
+    }
+
+    private int slotOf(String customer) {
+        int hash = customer.hashCode();
+        int mask = keys.length - 1;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (keys[slot] != null && keys[slot] != customer && !keys[slot].equals(customer)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize() {
+        String[] oldKeys = keys;
+        long[] oldCents = totalCents;
+        long[] oldCounts = invoiceCounts;
+        keys = new String[oldKeys.length * 2];
+        totalCents = new long[keys.length];
+        invoiceCounts = new long[keys.length];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = slotOf(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                totalCents[slot] = oldCents[i];
+                invoiceCounts[slot] = oldCounts[i];
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof CustomerTotals)) {
+            return false;
+        }
+        CustomerTotals that = (CustomerTotals) other;
+        if (size != that.size) {
+            return false;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null
+                && (that.totalCents(keys[i]) != totalCents[i] || that.invoiceCount(keys[i]) != invoiceCounts[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = size;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                hash += keys[i].hashCode() ^ Long.hashCode(totalCents[i]);
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "CustomerTotals" + toMap();
+    }
+}
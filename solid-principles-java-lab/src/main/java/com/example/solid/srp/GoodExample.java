@@ -1,35 +1,118 @@
 package com.example.solid.srp;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+
 class Invoice {
+    static final double TAX_RATE = 1.21;
+    static final long TAX_RATE_PERCENT = 121;
+    static final String INVALID_CUSTOMER_MESSAGE = "El cliente no puede ser nulo o vacío";
+    static final String NEGATIVE_AMOUNT_MESSAGE = "El monto no puede ser negativo";
+    static final String NON_FINITE_AMOUNT_MESSAGE = "El monto debe ser un número finito";
+    private static final long UNKNOWN_CENTS = -1;
+
     private String customer;
     private double amount;
+    private long amountCents;
 
     Invoice(String customer, double amount) {
+        this.customer = validateCustomer(customer);
+        this.amount = validateAmount(amount);
+        this.amountCents = UNKNOWN_CENTS;
+    }
+
+    Invoice(String customer, double amount, CustomerRegistry registry) {
+        if (registry == null) {
+            throw new IllegalArgumentException("El registro de clientes no puede ser null");
+        }
+        this.customer = registry.intern(customer);
+        this.amount = validateAmount(amount);
+        this.amountCents = UNKNOWN_CENTS;
+    }
+
+    private Invoice(String customer, long amountCents) {
+        this.customer = validateCustomer(customer);
+        if (amountCents < 0) {
+            throw new IllegalArgumentException(NEGATIVE_AMOUNT_MESSAGE);
+        }
+        this.amountCents = amountCents;
+        this.amount = amountCents / 100.0;
+    }
+
+    static Invoice ofCents(String customer, long amountCents) {
+        return new Invoice(customer, amountCents);
+    }
+
+    static String validateCustomer(String customer) {
         if (customer == null || customer.trim().isEmpty()) {
-            throw new IllegalArgumentException("El cliente no puede ser nulo o vacío");
+            throw new IllegalArgumentException(INVALID_CUSTOMER_MESSAGE);
         }
-        this.customer = customer.trim();
+        return customer.trim();
+    }
 
+    static double validateAmount(double amount) {
+        if (!Double.isFinite(amount)) {
+            throw new IllegalArgumentException(NON_FINITE_AMOUNT_MESSAGE);
+        }
         if (amount < 0) {
-            throw new IllegalArgumentException("El monto no puede ser negativo");
+            throw new IllegalArgumentException(NEGATIVE_AMOUNT_MESSAGE);
+        }
+        return amount;
+    }
+
+    static long toCents(double amount) {
+        double cents = Math.rint(amount * 100);
+        if (!(Math.abs(cents) < 0x1p63)) {
+            throw new IllegalArgumentException("El monto excede el rango admitido en centavos. Monto: " + amount);
         }
-        this.amount = amount;
+        return (long) cents;
+    }
+
+    static long divideHalfEven(long dividend, long divisor) {
+        long quotient = Math.floorDiv(dividend, divisor);
+        long remainder = Math.floorMod(dividend, divisor);
+        long complement = divisor - remainder;
+        if (remainder > complement || (remainder == complement && (quotient & 1) != 0)) {
+            quotient++;
+        }
+        return quotient;
     }
 
     double getAmount() {
         return amount;
     }
 
+    long getAmountCents() {
+        return amountCents == UNKNOWN_CENTS ? toCents(amount) : amountCents;
+    }
+
     String getCustomerName() {
         return customer;
     }
 
     double calculateTotal() {
-        return amount * 1.21;
+        return amount * TAX_RATE;
+    }
+
+    long calculateTotalCents() {
+        return divideHalfEven(Math.multiplyExact(getAmountCents(), TAX_RATE_PERCENT), 100);
     }
 }
 
 class InvoicePrinter {
+    private static final int CHUNK_SIZE = 8192;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final StringBuilder buffer = new StringBuilder(CHUNK_SIZE + 256);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private ByteBuffer bytes;
+
     void printInvoice(Invoice invoice) {
         if (invoice == null) {
             throw new IllegalArgumentException("La factura no puede ser null");
@@ -37,12 +120,134 @@ class InvoicePrinter {
         System.out.println("Factura para: " + invoice.getCustomerName());
         System.out.println("Total: " + invoice.calculateTotal());
     }
+
+    void printInvoices(Iterable<Invoice> invoices) {
+        try {
+            printInvoices(invoices, System.out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        System.out.flush();
+    }
+
+    void printInvoices(Iterable<Invoice> invoices, Appendable out) throws IOException {
+        if (invoices == null || out == null) {
+            throw new IllegalArgumentException("Las facturas y el destino no pueden ser null");
+        }
+        buffer.setLength(0);
+        for (Invoice invoice : invoices) {
+            format(invoice);
+            if (buffer.length() >= CHUNK_SIZE) {
+                out.append(buffer);
+                buffer.setLength(0);
+            }
+        }
+        if (buffer.length() > 0) {
+            out.append(buffer);
+            buffer.setLength(0);
+        }
+    }
+
+    void printInvoices(Iterable<Invoice> invoices, WritableByteChannel channel) throws IOException {
+        if (invoices == null || channel == null) {
+            throw new IllegalArgumentException("Las facturas y el destino no pueden ser null");
+        }
+        if (bytes == null) {
+            bytes = ByteBuffer.allocateDirect(CHUNK_SIZE * 2);
+        }
+        buffer.setLength(0);
+        for (Invoice invoice : invoices) {
+            format(invoice);
+            if (buffer.length() >= CHUNK_SIZE) {
+                write(channel);
+            }
+        }
+        if (buffer.length() > 0) {
+            write(channel);
+        }
+    }
+
+    private void format(Invoice invoice) {
+        if (invoice == null) {
+            throw new IllegalArgumentException("La factura no puede ser null");
+        }
+        buffer.append("Factura para: ").append(invoice.getCustomerName()).append(LINE_SEPARATOR)
+              .append("Total: ").append(invoice.calculateTotal()).append(LINE_SEPARATOR);
+    }
+
+    private void write(WritableByteChannel channel) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(buffer);
+        encoder.reset();
+        CoderResult result;
+        do {
+            result = encoder.encode(chars, bytes, true);
+            if (result.isError()) {
+                result.throwException();
+            }
+            if (result.isOverflow()) {
+                drain(channel);
+            }
+        } while (!result.isUnderflow());
+        while (encoder.flush(bytes).isOverflow()) {
+            drain(channel);
+        }
+        drain(channel);
+        buffer.setLength(0);
+    }
+
+    private void drain(WritableByteChannel channel) throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
 }
 
 class InvoiceDatabaseSaver {
+    private final InvoiceJournal journal;
+
+    InvoiceDatabaseSaver() {
+        this.journal = null;
+    }
+
+    InvoiceDatabaseSaver(InvoiceJournal journal) {
+        if (journal == null) {
+            throw new IllegalArgumentException("El diario de facturas no puede ser null");
+        }
+        this.journal = journal;
+    }
+
     void saveToDatabase() {
         System.out.println("Guardando factura...");
     }
+
+    void saveToDatabase(Invoice invoice) throws IOException {
+        if (invoice == null) {
+            throw new IllegalArgumentException("La factura no puede ser null");
+        }
+        if (journal == null) {
+            saveToDatabase();
+            return;
+        }
+        journal.append(invoice);
+    }
+
+    void saveAll(Iterable<Invoice> invoices) throws IOException {
+        if (invoices == null) {
+            throw new IllegalArgumentException("Las facturas no pueden ser null");
+        }
+        for (Invoice invoice : invoices) {
+            saveToDatabase(invoice);
+        }
+        commit();
+    }
+
+    void commit() {
+        if (journal != null) {
+            journal.commit();
+        }
+    }
 }
 
 public class GoodExample {
@@ -0,0 +1,95 @@
+package com.example.solid.srp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+class InvoiceAggregator {
+    private static final int DEFAULT_THRESHOLD = 16_384;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    InvoiceAggregator() {
+        this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    InvoiceAggregator(ForkJoinPool pool, int threshold) {
+        if (pool == null) {
+            throw new IllegalArgumentException("El pool no puede ser null");
+        }
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("El umbral de división debe ser mayor que cero");
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    CustomerTotals aggregate(List<Invoice> invoices) {
+        List<Invoice> indexed = randomAccess(invoices);
+        if (indexed.size() <= threshold) {
+            return aggregateSequential(indexed);
+        }
+        return pool.invoke(new AggregateTask(indexed, 0, indexed.size(), threshold));
+    }
+
+    static CustomerTotals aggregateSequential(List<Invoice> invoices) {
+        List<Invoice> indexed = randomAccess(invoices);
+        return accumulate(indexed, 0, indexed.size());
+    }
+
+    private static CustomerTotals accumulate(List<Invoice> invoices, int from, int to) {
+        CustomerTotals totals = new CustomerTotals();
+        for (int i = from; i < to; i++) {
+            Invoice invoice = invoices.get(i);
+            if (invoice == null) {
+                throw new IllegalArgumentException("La factura no puede ser null");
+            }
+            totals.add(invoice);
+        }
+        return totals;
+    }
+
+    private static List<Invoice> randomAccess(List<Invoice> invoices) {
+        if (invoices == null) {
+            throw new IllegalArgumentException("Las facturas no pueden ser null");
+        }
+        return invoices instanceof RandomAccess ? invoices : new ArrayList<>(invoices);
+    }
+
+    private static final class AggregateTask extends RecursiveTask<CustomerTotals> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Invoice> invoices;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        private AggregateTask(List<Invoice> invoices, int from, int to, int threshold) {
+            this.invoices = invoices;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected CustomerTotals compute() {
+            if (to - from <= threshold) {
+                return accumulate(invoices, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            AggregateTask right = new AggregateTask(invoices, middle, to, threshold);
+            right.fork();
+            CustomerTotals left = new AggregateTask(invoices, from, middle, threshold).compute();
+            CustomerTotals rightTotals = right.join();
+            if (left.size() < rightTotals.size()) {
+                rightTotals.merge(left);
+                return rightTotals;
+            }
+            left.merge(rightTotals);
+            return left;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.solid.srp;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+class InvoiceBatch {
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private double[] amounts;
+    private int[] customerIds;
+    private int size;
+
+    private String[] customers;
+    private final Map<String, Integer> customerIndex = new HashMap<>();
+
+    InvoiceBatch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    InvoiceBatch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("La capacidad debe ser mayor que cero");
+        }
+        this.amounts = new double[capacity];
+        this.customerIds = new int[capacity];
+        this.customers = new String[16];
+    }
+
+    int add(String customer, double amount) {
+        String name = Invoice.validateCustomer(customer);
+        double validAmount = Invoice.validateAmount(amount);
+
+        if (size == amounts.length) {
+            int newCapacity = amounts.length * 2;
+            amounts = Arrays.copyOf(amounts, newCapacity);
+            customerIds = Arrays.copyOf(customerIds, newCapacity);
+        }
+        amounts[size] = validAmount;
+        customerIds[size] = customerId(name);
+        return size++;
+    }
+
+    int add(Invoice invoice) {
+        if (invoice == null) {
+            throw new IllegalArgumentException("La factura no puede ser null");
+        }
+        return add(invoice.getCustomerName(), invoice.getAmount());
+    }
+
+    private int customerId(String name) {
+        Integer id = customerIndex.get(name);
+        if (id != null) {
+            return id;
+        }
+        int newId = customerIndex.size();
+        if (newId == customers.length) {
+            customers = Arrays.copyOf(customers, newId * 2);
+        }
+        customers[newId] = name;
+        customerIndex.put(name, newId);
+        return newId;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int customerCount() {
+        return customerIndex.size();
+    }
+
+    double getAmount(int row) {
+        checkRow(row);
+        return amounts[row];
+    }
+
+    int getCustomerId(int row) {
+        checkRow(row);
+        return customerIds[row];
+    }
+
+    String getCustomerName(int row) {
+        return customers[getCustomerId(row)];
+    }
+
+    String customerName(int customerId) {
+        if (customerId < 0 || customerId >= customerIndex.size()) {
+            throw new IndexOutOfBoundsException("Cliente inexistente: " + customerId);
+        }
+        return customers[customerId];
+    }
+
+    int customerIdOf(String customer) {
+        Integer id = customerIndex.get(customer == null ? null : customer.trim());
+        return id == null ? -1 : id;
+    }
+
+    double calculateTotal(int row) {
+        return getAmount(row) * Invoice.TAX_RATE;
+    }
+
+    double calculateTotal() {
+        double[] columnAmounts = amounts;
+        double total = 0.0;
+        for (int i = 0; i < size; i++) {
+            total += columnAmounts[i] * Invoice.TAX_RATE;
+        }
+        return total;
+    }
+
+    void calculateTotalsByCustomer(double[] totals) {
+        if (totals.length < customerIndex.size()) {
+            throw new IllegalArgumentException(
+                "El arreglo de totales debe tener al menos " + customerIndex.size() + " posiciones"
+            );
+        }
+        Arrays.fill(totals, 0, customerIndex.size(), 0.0);
+        double[] columnAmounts = amounts;
+        int[] columnCustomers = customerIds;
+        for (int i = 0; i < size; i++) {
+            totals[columnCustomers[i]] += columnAmounts[i] * Invoice.TAX_RATE;
+        }
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Fila inexistente: " + row);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.solid.srp;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class InvoiceBenchmark {
+    private static final int DEFAULT_INVOICES = 200_000;
+
+    public static void main(String[] args) throws IOException {
+        int invoiceCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_INVOICES;
+        List<Invoice> invoices = createInvoices(invoiceCount);
+
+        benchmarkSavers(invoices);
+        benchmarkCustomerInterning(invoiceCount);
+        benchmarkMoney(invoices);
+        benchmarkAggregation(invoices);
+    }
+
+    static List<Invoice> createInvoices(int count) {
+        List<Invoice> invoices = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            invoices.add(new Invoice("Cliente " + (i % 5_000), (i % 10_000) / 100.0));
+        }
+        return invoices;
+    }
+
+    static void benchmarkSavers(List<Invoice> invoices) throws IOException {
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        long start = System.nanoTime();
+        try {
+            InvoiceDatabaseSaver stub = new InvoiceDatabaseSaver();
+            for (Invoice invoice : invoices) {
+                stub.saveToDatabase(invoice);
+            }
+        } finally {
+            System.setOut(originalOut);
+        }
+        report("Saver stub (println)", invoices.size(), System.nanoTime() - start);
+
+        benchmarkJournal("Diario sin fsync automático", invoices, InvoiceJournal.NO_AUTO_COMMIT);
+        benchmarkJournal("Diario con group commit de 1000", invoices, 1_000);
+        benchmarkJournal("Diario con fsync por factura", invoices.subList(0, Math.min(2_000, invoices.size())), 1);
+    }
+
+    private static void benchmarkJournal(String name, List<Invoice> invoices, int groupCommitSize) throws IOException {
+        Path directory = Files.createTempDirectory("invoice-journal");
+        try (InvoiceJournal journal = InvoiceJournal.open(directory, 1 << 16, groupCommitSize)) {
+            InvoiceDatabaseSaver saver = new InvoiceDatabaseSaver(journal);
+            long start = System.nanoTime();
+            saver.saveAll(invoices);
+            report(name + " (" + journal.commitCount() + " fsync)", invoices.size(), System.nanoTime() - start);
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    static void benchmarkCustomerInterning(int count) {
+        long plainBytes = retainedBytes(count, null);
+        long internedBytes = retainedBytes(count, new CustomerRegistry(8_192));
+        System.out.printf("%-50s %,12d bytes %,8d bytes/factura%n", "Heap sin registro de clientes", plainBytes, plainBytes / count);
+        System.out.printf("%-50s %,12d bytes %,8d bytes/factura%n", "Heap con registro de clientes", internedBytes, internedBytes / count);
+
+        CustomerRegistry registry = new CustomerRegistry(8_192);
+        String[] rawNames = new String[5_000];
+        for (int i = 0; i < rawNames.length; i++) {
+            rawNames[i] = " Cliente " + i + " ";
+        }
+        long start = System.nanoTime();
+        long checksum = 0;
+        for (int i = 0; i < count; i++) {
+            checksum += new Invoice(rawNames[i % rawNames.length], 1.0, registry).getCustomerName().length();
+        }
+        report("Invoice con registro (" + checksum + ")", count, System.nanoTime() - start);
+        start = System.nanoTime();
+        checksum = 0;
+        for (int i = 0; i < count; i++) {
+            checksum += new Invoice(rawNames[i % rawNames.length], 1.0).getCustomerName().length();
+        }
+        report("Invoice sin registro (" + checksum + ")", count, System.nanoTime() - start);
+    }
+
+    private static long retainedBytes(int count, CustomerRegistry registry) {
+        long before = usedHeap();
+        List<Invoice> invoices = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String customer = new StringBuilder(" Cliente ").append(i % 5_000).append(' ').toString();
+            invoices.add(registry == null ? new Invoice(customer, 1.0) : new Invoice(customer, 1.0, registry));
+        }
+        long retained = usedHeap() - before;
+        if (invoices.size() != count) {
+            throw new IllegalStateException();
+        }
+        return retained;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    static void benchmarkMoney(List<Invoice> invoices) {
+        BigDecimal taxRate = BigDecimal.valueOf(Invoice.TAX_RATE);
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            double doubleTotal = 0.0;
+            for (Invoice invoice : invoices) {
+                doubleTotal += invoice.calculateTotal();
+            }
+            report("Total en double (" + doubleTotal + ")", invoices.size(), System.nanoTime() - start);
+
+            start = System.nanoTime();
+            BigDecimal decimalTotal = BigDecimal.ZERO;
+            for (Invoice invoice : invoices) {
+                decimalTotal = decimalTotal.add(
+                    BigDecimal.valueOf(invoice.getAmount()).multiply(taxRate).setScale(2, RoundingMode.HALF_EVEN));
+            }
+            report("Total en BigDecimal (" + decimalTotal + ")", invoices.size(), System.nanoTime() - start);
+
+            start = System.nanoTime();
+            long centsTotal = 0;
+            for (Invoice invoice : invoices) {
+                centsTotal += invoice.calculateTotalCents();
+            }
+            report("Total en centavos (" + centsTotal + ")", invoices.size(), System.nanoTime() - start);
+        }
+    }
+
+    static void benchmarkAggregation(List<Invoice> invoices) {
+        InvoiceAggregator aggregator = new InvoiceAggregator();
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            CustomerTotals sequential = InvoiceAggregator.aggregateSequential(invoices);
+            report("Agregación secuencial (" + sequential.size() + " clientes)", invoices.size(), System.nanoTime() - start);
+
+            start = System.nanoTime();
+            CustomerTotals parallel = aggregator.aggregate(invoices);
+            report("Agregación fork/join (" + parallel.equals(sequential) + ")", invoices.size(), System.nanoTime() - start);
+        }
+    }
+
+    static void report(String name, long operations, long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("%-50s %,12d ops %10.1f ms %,15.0f ops/s%n",
+            name, operations, elapsedNanos / 1_000_000.0, operations / seconds);
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.example.solid.srp;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ObjDoubleConsumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+class InvoiceJournal implements Closeable {
+    static final int RECORD_SIZE = 128;
+    static final int HEADER_SIZE = RECORD_SIZE;
+    static final int MAX_CUSTOMER_BYTES = 114;
+    static final int NO_AUTO_COMMIT = 0;
+
+    private static final int CUSTOMER_OFFSET = 2;
+    private static final int AMOUNT_OFFSET = CUSTOMER_OFFSET + MAX_CUSTOMER_BYTES;
+    private static final int CHECKSUM_OFFSET = AMOUNT_OFFSET + Double.BYTES;
+    private static final String SEGMENT_PREFIX = "invoices-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final int SEGMENT_MAGIC = 0x494A524E;
+    private static final int HEADER_CHECKSUM_OFFSET = Integer.BYTES * 2;
+    private static final int NO_HEADER = 0;
+    private static final int ZERO_CHUNK_SIZE = 64 * RECORD_SIZE;
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final int groupCommitSize;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final CRC32 crc = new CRC32();
+    private final byte[] record = new byte[RECORD_SIZE];
+    private final ByteBuffer recordBuffer = ByteBuffer.wrap(record);
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int segmentIndex;
+    private int segmentRecords;
+    private long recordCount;
+    private int pendingRecords;
+    private long commits;
+
+    private InvoiceJournal(Path directory, int recordsPerSegment, int groupCommitSize) {
+        this.directory = directory;
+        this.recordsPerSegment = recordsPerSegment;
+        this.groupCommitSize = groupCommitSize;
+    }
+
+    static InvoiceJournal open(Path directory, int recordsPerSegment, int groupCommitSize) throws IOException {
+        if (directory == null) {
+            throw new IllegalArgumentException("El directorio del diario no puede ser null");
+        }
+        if (recordsPerSegment <= 0) {
+            throw new IllegalArgumentException("Cada segmento debe admitir al menos un registro");
+        }
+        if (groupCommitSize < 0) {
+            throw new IllegalArgumentException("El tamaño del grupo de confirmación no puede ser negativo");
+        }
+        Files.createDirectories(directory);
+        List<Path> segments = segmentFiles(directory);
+        int segmentCapacity = recordsPerSegment;
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            int stored = readRecordsPerSegment(segments.get(i));
+            if (stored != NO_HEADER) {
+                segmentCapacity = stored;
+                break;
+            }
+        }
+        InvoiceJournal journal = new InvoiceJournal(directory, segmentCapacity, groupCommitSize);
+        journal.recover(segments);
+        return journal;
+    }
+
+    private void recover(List<Path> segments) throws IOException {
+        if (segments.isEmpty()) {
+            createSegment(0);
+            return;
+        }
+        for (int i = 0; i < segments.size() - 1; i++) {
+            try (FileChannel previous = FileChannel.open(segments.get(i), StandardOpenOption.READ)) {
+                recordCount += scan(previous.map(FileChannel.MapMode.READ_ONLY, 0, previous.size()), null);
+            }
+        }
+        Path newest = segments.get(segments.size() - 1);
+        if (readRecordsPerSegment(newest) == NO_HEADER) {
+            createSegment(segmentNumber(newest));
+            return;
+        }
+        openSegment(segmentNumber(newest));
+        segmentRecords = (int) scan(segment, null);
+        recordCount += segmentRecords;
+        int tail = HEADER_SIZE + segmentRecords * RECORD_SIZE;
+        if (tail < segment.capacity()) {
+            byte[] zeros = new byte[Math.min(ZERO_CHUNK_SIZE, segment.capacity() - tail)];
+            for (int offset = tail; offset < segment.capacity(); offset += zeros.length) {
+                segment.put(offset, zeros, 0, Math.min(zeros.length, segment.capacity() - offset));
+            }
+            segment.force();
+        }
+    }
+
+    synchronized void append(Invoice invoice) throws IOException {
+        if (invoice == null) {
+            throw new IllegalArgumentException("La factura no puede ser null");
+        }
+        ensureOpen();
+        encodeRecord(invoice.getCustomerName(), invoice.getAmount());
+        if (segmentRecords == recordsPerSegment) {
+            segment.force();
+            channel.close();
+            createSegment(segmentIndex + 1);
+        }
+        segment.put(HEADER_SIZE + segmentRecords * RECORD_SIZE, record);
+        segmentRecords++;
+        recordCount++;
+        pendingRecords++;
+        if (groupCommitSize != NO_AUTO_COMMIT && pendingRecords >= groupCommitSize) {
+            commit();
+        }
+    }
+
+    synchronized void commit() {
+        if (segment == null || pendingRecords == 0) {
+            return;
+        }
+        segment.force();
+        pendingRecords = 0;
+        commits++;
+    }
+
+    synchronized long replay(ObjDoubleConsumer<String> consumer) throws IOException {
+        if (consumer == null) {
+            throw new IllegalArgumentException("El consumidor no puede ser null");
+        }
+        ensureOpen();
+        long replayed = 0;
+        for (Path path : segmentFiles(directory)) {
+            if (segmentNumber(path) == segmentIndex) {
+                replayed += scan(segment, consumer);
+                continue;
+            }
+            try (FileChannel previous = FileChannel.open(path, StandardOpenOption.READ)) {
+                replayed += scan(previous.map(FileChannel.MapMode.READ_ONLY, 0, previous.size()), consumer);
+            }
+        }
+        return replayed;
+    }
+
+    synchronized long size() {
+        return recordCount;
+    }
+
+    synchronized int segmentCount() {
+        return segmentIndex + 1;
+    }
+
+    synchronized long commitCount() {
+        return commits;
+    }
+
+    int recordsPerSegment() {
+        return recordsPerSegment;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        commit();
+        channel.close();
+        channel = null;
+        segment = null;
+    }
+
+    private void encodeRecord(String customer, double amount) {
+        recordBuffer.clear();
+        recordBuffer.position(CUSTOMER_OFFSET).limit(AMOUNT_OFFSET);
+        encoder.reset();
+        CoderResult result = encoder.encode(CharBuffer.wrap(customer), recordBuffer, true);
+        if (!result.isUnderflow() || !encoder.flush(recordBuffer).isUnderflow()) {
+            throw new IllegalArgumentException(
+                "El cliente excede " + MAX_CUSTOMER_BYTES + " bytes o no es codificable: " + customer
+            );
+        }
+        int length = recordBuffer.position() - CUSTOMER_OFFSET;
+        Arrays.fill(record, recordBuffer.position(), AMOUNT_OFFSET, (byte) 0);
+        recordBuffer.limit(RECORD_SIZE);
+        recordBuffer.putShort(0, (short) length);
+        recordBuffer.putDouble(AMOUNT_OFFSET, amount);
+        crc.reset();
+        crc.update(record, 0, CHECKSUM_OFFSET);
+        recordBuffer.putInt(CHECKSUM_OFFSET, (int) crc.getValue());
+    }
+
+    private long scan(ByteBuffer data, ObjDoubleConsumer<String> consumer) {
+        byte[] slot = new byte[RECORD_SIZE];
+        ByteBuffer view = ByteBuffer.wrap(slot);
+        CRC32 checksum = new CRC32();
+        long valid = 0;
+        for (int offset = HEADER_SIZE; offset + RECORD_SIZE <= data.capacity(); offset += RECORD_SIZE) {
+            data.get(offset, slot);
+            int length = view.getShort(0);
+            if (length <= 0 || length > MAX_CUSTOMER_BYTES) {
+                break;
+            }
+            checksum.reset();
+            checksum.update(slot, 0, CHECKSUM_OFFSET);
+            if ((int) checksum.getValue() != view.getInt(CHECKSUM_OFFSET)) {
+                break;
+            }
+            if (consumer != null) {
+                String customer = new String(slot, CUSTOMER_OFFSET, length, StandardCharsets.UTF_8);
+                consumer.accept(customer, view.getDouble(AMOUNT_OFFSET));
+            }
+            valid++;
+        }
+        return valid;
+    }
+
+    private void openSegment(int index) throws IOException {
+        channel = FileChannel.open(segmentPath(index), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        mapSegment(index);
+    }
+
+    private void createSegment(int index) throws IOException {
+        channel = FileChannel.open(segmentPath(index), StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        mapSegment(index);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_CHECKSUM_OFFSET + Integer.BYTES);
+        header.putInt(SEGMENT_MAGIC).putInt(recordsPerSegment);
+        crc.reset();
+        crc.update(header.array(), 0, HEADER_CHECKSUM_OFFSET);
+        header.putInt((int) crc.getValue());
+        segment.put(0, header.array());
+        segment.force();
+    }
+
+    private void mapSegment(int index) throws IOException {
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) recordsPerSegment * RECORD_SIZE);
+        segmentIndex = index;
+        segmentRecords = 0;
+    }
+
+    private static int readRecordsPerSegment(Path path) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_CHECKSUM_OFFSET + Integer.BYTES);
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (header.hasRemaining()) {
+                if (file.read(header) < 0) {
+                    break;
+                }
+            }
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update(header.array(), 0, HEADER_CHECKSUM_OFFSET);
+        if (header.hasRemaining() || header.getInt(0) != SEGMENT_MAGIC
+                || (int) checksum.getValue() != header.getInt(HEADER_CHECKSUM_OFFSET)
+                || header.getInt(Integer.BYTES) <= 0) {
+            return NO_HEADER;
+        }
+        return header.getInt(Integer.BYTES);
+    }
+
+    private static List<Path> segmentFiles(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).forEach(segments::add);
+        }
+        segments.sort((a, b) -> Integer.compare(segmentNumber(a), segmentNumber(b)));
+        return segments;
+    }
+
+    private Path segmentPath(int index) {
+        return directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    private static int segmentNumber(Path path) {
+        String name = path.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private void ensureOpen() {
+        if (channel == null) {
+            throw new IllegalStateException("El diario de facturas está cerrado");
+        }
+    }
+}
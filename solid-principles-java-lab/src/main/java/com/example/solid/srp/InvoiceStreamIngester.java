@@ -0,0 +1,300 @@
+package com.example.solid.srp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+class InvoiceStreamIngester {
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+    private static final byte SEPARATOR = ',';
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final ByteBuffer buffer;
+    private final boolean skipHeader;
+
+    private int[] slots = new int[64];
+    private byte[][] customerKeys = new byte[16][];
+    private int[] customerHashes = new int[16];
+    private double[] customerTotals = new double[16];
+    private int customerCount;
+
+    private long lineNumber;
+    private long rows;
+    private double total;
+
+    InvoiceStreamIngester() {
+        this(DEFAULT_BUFFER_SIZE, false);
+    }
+
+    InvoiceStreamIngester(int bufferSize, boolean skipHeader) {
+        if (bufferSize < 64) {
+            throw new IllegalArgumentException("El búfer debe tener al menos 64 bytes");
+        }
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        this.skipHeader = skipHeader;
+    }
+
+    long ingest(Path file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("El archivo no puede ser null");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return ingest(channel);
+        }
+    }
+
+    long ingest(ReadableByteChannel channel) throws IOException {
+        if (channel == null) {
+            throw new IllegalArgumentException("El canal no puede ser null");
+        }
+        long rowsBefore = rows;
+        long firstLine = lineNumber + 1;
+        buffer.clear();
+        boolean endOfStream = false;
+        while (!endOfStream) {
+            endOfStream = channel.read(buffer) < 0;
+            buffer.flip();
+            int lineStart = buffer.position();
+            for (int i = lineStart; i < buffer.limit(); i++) {
+                if (buffer.get(i) == '\n') {
+                    processLine(lineStart, i, firstLine);
+                    lineStart = i + 1;
+                }
+            }
+            if (endOfStream) {
+                if (lineStart < buffer.limit()) {
+                    processLine(lineStart, buffer.limit(), firstLine);
+                }
+            } else if (lineStart == buffer.position() && buffer.limit() == buffer.capacity()) {
+                throw new IllegalArgumentException(
+                    "Línea " + (lineNumber + 1) + ": excede el tamaño del búfer de " + buffer.capacity() + " bytes"
+                );
+            }
+            buffer.position(lineStart);
+            buffer.compact();
+        }
+        return rows - rowsBefore;
+    }
+
+    private void processLine(int start, int end, long firstLine) {
+        lineNumber++;
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        if (skipHeader && lineNumber == firstLine) {
+            return;
+        }
+        int separator = -1;
+        for (int i = end - 1; i >= start; i--) {
+            if (buffer.get(i) == SEPARATOR) {
+                separator = i;
+                break;
+            }
+        }
+        if (separator < 0) {
+            if (trimStart(start, end) == end) {
+                return;
+            }
+            throw rowError("falta el separador '" + (char) SEPARATOR + "'");
+        }
+
+        int customerStart = trimStart(start, separator);
+        int customerEnd = trimEnd(customerStart, separator);
+        if (customerStart == customerEnd) {
+            throw rowError(Invoice.INVALID_CUSTOMER_MESSAGE);
+        }
+        double amount = parseAmount(trimStart(separator + 1, end), trimEnd(separator + 1, end));
+        try {
+            Invoice.validateAmount(amount);
+        } catch (IllegalArgumentException e) {
+            throw rowError(e.getMessage());
+        }
+
+        double invoiceTotal = amount * Invoice.TAX_RATE;
+        customerTotals[customerId(customerStart, customerEnd)] += invoiceTotal;
+        total += invoiceTotal;
+        rows++;
+    }
+
+    private double parseAmount(int start, int end) {
+        if (start == end) {
+            throw rowError("falta el monto");
+        }
+        int i = start;
+        boolean negative = false;
+        byte first = buffer.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean fraction = false;
+        for (; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (fraction) {
+                    scale++;
+                }
+                if (mantissa > MAX_EXACT_MANTISSA || scale >= POWERS_OF_TEN.length) {
+                    return parseAmountSlow(start, end);
+                }
+            } else if (b == '.' && !fraction) {
+                fraction = true;
+            } else {
+                return parseAmountSlow(start, end);
+            }
+        }
+        if (digits == 0) {
+            return parseAmountSlow(start, end);
+        }
+        double value = mantissa / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+
+    private double parseAmountSlow(int start, int end) {
+        byte[] text = new byte[end - start];
+        buffer.get(start, text);
+        try {
+            return Double.parseDouble(new String(text, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            throw rowError("monto inválido");
+        }
+    }
+
+    private int customerId(int start, int end) {
+        int hash = 1;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + buffer.get(i);
+        }
+        int mask = slots.length - 1;
+        for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (id < 0) {
+                return addCustomer(slot, hash, start, end);
+            }
+            if (customerHashes[id] == hash && sameBytes(customerKeys[id], start, end)) {
+                return id;
+            }
+        }
+    }
+
+    private int addCustomer(int slot, int hash, int start, int end) {
+        int id = customerCount++;
+        if (id == customerKeys.length) {
+            int newCapacity = id * 2;
+            customerKeys = Arrays.copyOf(customerKeys, newCapacity);
+            customerHashes = Arrays.copyOf(customerHashes, newCapacity);
+            customerTotals = Arrays.copyOf(customerTotals, newCapacity);
+        }
+        byte[] key = new byte[end - start];
+        buffer.get(start, key);
+        customerKeys[id] = key;
+        customerHashes[id] = hash;
+        slots[slot] = id + 1;
+        if (customerCount * 2 > slots.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    private void rehash() {
+        int[] resized = new int[slots.length * 2];
+        int mask = resized.length - 1;
+        for (int id = 0; id < customerCount; id++) {
+            int slot = mix(customerHashes[id]) & mask;
+            while (resized[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            resized[slot] = id + 1;
+        }
+        slots = resized;
+    }
+
+    private boolean sameBytes(byte[] key, int start, int end) {
+        if (key.length != end - start) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (key[i] != buffer.get(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int trimStart(int start, int end) {
+        while (start < end && (buffer.get(start) & 0xFF) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private int trimEnd(int start, int end) {
+        while (end > start && (buffer.get(end - 1) & 0xFF) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    private IllegalArgumentException rowError(String message) {
+        return new IllegalArgumentException("Línea " + lineNumber + ": " + message);
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    long rowCount() {
+        return rows;
+    }
+
+    int customerCount() {
+        return customerCount;
+    }
+
+    double calculateTotal() {
+        return total;
+    }
+
+    double totalFor(String customer) {
+        if (customer == null) {
+            return 0.0;
+        }
+        byte[] key = customer.trim().getBytes(StandardCharsets.UTF_8);
+        int hash = 1;
+        for (byte b : key) {
+            hash = 31 * hash + b;
+        }
+        int mask = slots.length - 1;
+        for (int slot = mix(hash) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (customerHashes[id] == hash && Arrays.equals(customerKeys[id], key)) {
+                return customerTotals[id];
+            }
+        }
+        return 0.0;
+    }
+
+    Map<String, Double> totalsByCustomer() {
+        Map<String, Double> totals = new LinkedHashMap<>();
+        for (int id = 0; id < customerCount; id++) {
+            totals.put(new String(customerKeys[id], StandardCharsets.UTF_8), customerTotals[id]);
+        }
+        return totals;
+    }
+}
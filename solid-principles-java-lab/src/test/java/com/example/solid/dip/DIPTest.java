@@ -4,9 +4,31 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -14,14 +36,14 @@ import static org.junit.jupiter.api.Assertions.*;
 class DIPTest {
 
     private MySQLDatabase mySQLDatabase;
-    private OrderProcessor orderProcessor;
+    private KeyedOrderProcessor orderProcessor;
     private ByteArrayOutputStream outputStream;
     private PrintStream originalOut;
 
     @BeforeEach
     void setUp() {
         mySQLDatabase = new MySQLDatabase();
-        orderProcessor = new OrderProcessor(mySQLDatabase);
+        orderProcessor = new KeyedOrderProcessor(mySQLDatabase);
         
         originalOut = System.out;
         outputStream = new ByteArrayOutputStream();
@@ -97,4 +119,1153 @@ class DIPTest {
         assertTrue(output.contains("Procesando pedido"), "Debe procesar el pedido");
         assertTrue(output.contains("MySQL"), "Debe guardar en MySQL");
     }
+
+    @Test
+    @DisplayName("AsyncDatabaseAdapter guarda en MySQL sin bloquear al llamador")
+    void testAsyncDatabaseAdapterWrapsSynchronousDatabase() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            AsyncDatabase database = new AsyncDatabaseAdapter(mySQLDatabase, executor);
+            AsyncOrderProcessor processor = new AsyncOrderProcessor(database, 4);
+            List<CompletableFuture<Void>> orders = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                orders.add(processor.processOrder());
+            }
+            CompletableFuture.allOf(orders.toArray(new CompletableFuture<?>[0])).join();
+
+            assertEquals(10, processor.completedCount());
+            assertEquals(0, processor.inFlight());
+            String output = outputStream.toString();
+            assertEquals(10, output.split("Guardando pedido en MySQL", -1).length - 1);
+            assertFalse(output.contains("Procesando pedido"), "La ruta asíncrona no imprime por pedido");
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThrows(IllegalArgumentException.class, () -> new AsyncDatabaseAdapter(null, Runnable::run));
+        assertThrows(IllegalArgumentException.class, () -> new AsyncOrderProcessor(() -> null, 0));
+    }
+
+    @Test
+    @DisplayName("AsyncOrderProcessor limita los pedidos en vuelo y encola el resto")
+    void testAsyncOrderProcessorLimitsInFlight() {
+        List<CompletableFuture<Void>> saves = new ArrayList<>();
+        AsyncOrderProcessor processor = new AsyncOrderProcessor(() -> {
+            CompletableFuture<Void> save = new CompletableFuture<>();
+            saves.add(save);
+            return save;
+        }, 2);
+
+        List<CompletableFuture<Void>> orders = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            orders.add(processor.processOrder());
+        }
+        assertEquals(2, processor.inFlight());
+        assertEquals(3, processor.queued());
+        assertEquals(2, saves.size());
+
+        saves.get(0).complete(null);
+        assertTrue(orders.get(0).isDone());
+        assertEquals(3, saves.size());
+        assertEquals(2, processor.queued());
+
+        saves.get(1).completeExceptionally(new IllegalStateException("caída"));
+        assertTrue(orders.get(1).isCompletedExceptionally());
+        for (int i = 2; i < 5; i++) {
+            saves.get(i).complete(null);
+        }
+        assertTrue(orders.stream().allMatch(CompletableFuture::isDone));
+        assertEquals(4, processor.completedCount());
+        assertEquals(1, processor.failedCount());
+        assertEquals(0, processor.inFlight());
+        assertEquals(0, processor.queued());
+    }
+
+    @Test
+    @DisplayName("WriteBehindDatabase agrupa pedidos por tamaño de lote y vacía al cerrar")
+    void testWriteBehindDatabaseFlushesBySizeAndOnClose() throws InterruptedException {
+        List<Integer> batches = new CopyOnWriteArrayList<>();
+        OrderStore backend = new OrderStore() {
+            @Override
+            public void saveOrder() {
+                batches.add(1);
+            }
+
+            @Override
+            public void saveOrder(long orderId) {
+                batches.add(1);
+            }
+
+            @Override
+            public void saveOrders(int count) {
+                batches.add(count);
+            }
+
+            @Override
+            public void saveOrder(Order order) {
+                batches.add(1);
+            }
+
+            @Override
+            public Order loadOrder(OrderKey key) {
+                return null;
+            }
+        };
+        WriteBehindDatabase database = new WriteBehindDatabase(
+            backend, 10, 1, TimeUnit.HOURS, 100, WriteBehindDatabase.OverflowPolicy.BLOCK);
+        KeyedOrderProcessor processor = new KeyedOrderProcessor(database);
+        for (int i = 0; i < 25; i++) {
+            processor.processOrder();
+        }
+        database.close();
+
+        assertEquals(25, database.flushedCount());
+        assertEquals(0, database.pendingCount());
+        assertEquals(25, batches.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batches.size() <= 3);
+        assertEquals(10, database.largestBatch());
+        assertTrue(database.averageBatchSize() > 8);
+        assertTrue(database.maxFlushNanos() >= database.averageFlushNanos());
+        assertThrows(IllegalStateException.class, database::saveOrder);
+    }
+
+    @Test
+    @DisplayName("WriteBehindDatabase vacía por latencia máxima y mediante flush()")
+    void testWriteBehindDatabaseFlushesByLatency() throws InterruptedException {
+        InMemoryDatabase backend = new InMemoryDatabase();
+        WriteBehindDatabase database = new WriteBehindDatabase(
+            backend, 1_000, 20, TimeUnit.MILLISECONDS, 1_000, WriteBehindDatabase.OverflowPolicy.BLOCK);
+        try {
+            database.saveOrder();
+            database.saveOrder();
+            database.saveOrder();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (database.flushedCount() < 3 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(3, database.flushedCount());
+            assertEquals(3, backend.size());
+
+            database.saveOrder();
+            database.flush();
+            assertEquals(4, database.flushedCount());
+            assertEquals(2, database.batchCount());
+        } finally {
+            database.close();
+        }
+    }
+
+    @Test
+    @DisplayName("WriteBehindDatabase falla con el búfer lleno según la política")
+    void testWriteBehindDatabaseFailPolicy() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch flushing = new CountDownLatch(1);
+        OrderStore slowBackend = new OrderStore() {
+            @Override
+            public void saveOrder() {
+                saveOrders(1);
+            }
+
+            @Override
+            public void saveOrder(long orderId) {
+                saveOrders(1);
+            }
+
+            @Override
+            public void saveOrders(int count) {
+                flushing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void saveOrder(Order order) {
+                saveOrders(1);
+            }
+
+            @Override
+            public Order loadOrder(OrderKey key) {
+                return null;
+            }
+        };
+        WriteBehindDatabase database = new WriteBehindDatabase(
+            slowBackend, 2, 1, TimeUnit.HOURS, 4, WriteBehindDatabase.OverflowPolicy.FAIL);
+        database.saveOrders(2);
+        assertTrue(flushing.await(5, TimeUnit.SECONDS));
+        database.saveOrders(4);
+        assertThrows(IllegalStateException.class, database::saveOrder);
+
+        release.countDown();
+        database.close();
+        assertEquals(6, database.flushedCount());
+        assertThrows(IllegalArgumentException.class, () -> new WriteBehindDatabase(
+            new InMemoryDatabase(), 10, 1, TimeUnit.SECONDS, 5, WriteBehindDatabase.OverflowPolicy.FAIL));
+    }
+
+    @Test
+    @DisplayName("KeyedDatabase guarda claves y lotes a través de saveOrder(long)")
+    void testKeyedDatabaseRoutesThroughOrderIds() {
+        List<Long> saved = new ArrayList<>();
+        KeyedDatabase keyed = new KeyedDatabase() {
+            @Override
+            public void saveOrder() {
+                saved.add(-1L);
+            }
+
+            @Override
+            public void saveOrder(long orderId) {
+                saved.add(orderId);
+            }
+
+            @Override
+            public void saveOrder(Order order) {
+                saveOrder(order.getKey().getOrderId());
+            }
+        };
+        keyed.saveOrder(new OrderKey("web", 42));
+        keyed.saveOrders(new long[] {1, 2, 3}, 1, 2);
+        keyed.saveOrders(1);
+        keyed.saveOrder(new Order(OrderKey.of(7), "Ana", 100));
+        assertEquals(List.of(42L, 2L, 3L, -1L, 7L), saved);
+
+        mySQLDatabase.saveOrder(42);
+        assertTrue(outputStream.toString().contains("Guardando pedido 42 en MySQL"));
+    }
+
+    @Test
+    @DisplayName("WriteBehindDatabase conserva los identificadores y pedidos encolados")
+    void testWriteBehindDatabaseKeepsIdsAndOrders() throws InterruptedException {
+        InMemoryDatabase backend = new InMemoryDatabase();
+        WriteBehindDatabase database = new WriteBehindDatabase(
+            backend, 8, 1, TimeUnit.HOURS, 64, WriteBehindDatabase.OverflowPolicy.BLOCK);
+        database.saveOrder(42L);
+        database.saveOrders(new long[] {7, 8, 9}, 1, 2);
+        database.saveOrder(new Order(OrderKey.of(100), "Ana", 1_500));
+        database.saveOrder();
+        database.flush();
+
+        assertTrue(backend.contains(42));
+        assertTrue(backend.contains(8) && backend.contains(9));
+        assertFalse(backend.contains(7));
+        assertEquals(1_500, backend.loadOrder(OrderKey.of(100)).getTotalCents());
+        assertEquals(5, backend.size());
+        assertEquals(5, database.flushedCount());
+        assertThrows(IllegalArgumentException.class, () -> database.saveOrder(-1L));
+        database.close();
+    }
+
+    @Test
+    @DisplayName("MySQLDatabase guarda lotes de pedidos en una sola operación")
+    void testMySQLDatabaseSavesBatch() {
+        mySQLDatabase.saveOrders(5);
+        String output = outputStream.toString();
+        assertTrue(output.contains("Guardando 5 pedidos en MySQL"));
+        assertEquals(1, output.lines().count());
+    }
+
+    @Test
+    @DisplayName("LogStructuredDatabase guarda pedidos y los recupera tras reabrir")
+    void testLogStructuredDatabaseRecoversAfterReopen(@TempDir Path directory) throws IOException {
+        try (LogStructuredDatabase database = LogStructuredDatabase.open(directory, 1 << 20)) {
+            KeyedOrderProcessor processor = new KeyedOrderProcessor(database);
+            processor.processOrder();
+            processor.processOrder();
+            database.saveOrder(10, "pedido diez".getBytes(StandardCharsets.UTF_8));
+            database.saveOrders(3);
+            assertEquals(6, database.size());
+        }
+        try (LogStructuredDatabase database = LogStructuredDatabase.open(directory, 1 << 20)) {
+            assertEquals(6, database.size());
+            assertTrue(database.contains(1));
+            assertTrue(database.contains(13));
+            assertEquals("pedido diez", new String(database.readOrder(10), StandardCharsets.UTF_8));
+            assertNull(database.readOrder(99));
+            database.saveOrder();
+            assertTrue(database.contains(14));
+        }
+    }
+
+    @Test
+    @DisplayName("LogStructuredDatabase descarta un registro final corrupto al recuperar")
+    void testLogStructuredDatabaseTruncatesTornWrite(@TempDir Path directory) throws IOException {
+        try (LogStructuredDatabase database = LogStructuredDatabase.open(directory, 1 << 20)) {
+            database.saveOrder(1, new byte[] {1, 2, 3});
+            database.saveOrder(2, new byte[] {4, 5, 6});
+        }
+        Path log = directory.resolve("orders.log");
+        byte[] bytes = Files.readAllBytes(log);
+        bytes[bytes.length - 6] ^= 0x7F;
+        Files.write(log, Arrays.copyOf(bytes, bytes.length + 5));
+
+        try (LogStructuredDatabase database = LogStructuredDatabase.open(directory, 1 << 20)) {
+            assertEquals(1, database.size());
+            assertArrayEquals(new byte[] {1, 2, 3}, database.readOrder(1));
+            assertFalse(database.contains(2));
+            assertEquals(Files.size(log), database.logBytes());
+        }
+    }
+
+    @Test
+    @DisplayName("LogStructuredDatabase compacta las versiones reemplazadas")
+    void testLogStructuredDatabaseCompactsSupersededRecords(@TempDir Path directory) throws IOException {
+        try (LogStructuredDatabase database = LogStructuredDatabase.open(directory, 1_024)) {
+            for (int version = 0; version < 50; version++) {
+                for (long orderId = 0; orderId < 4; orderId++) {
+                    database.saveOrder(orderId, new byte[] {(byte) version, (byte) orderId});
+                }
+            }
+            assertTrue(database.compactionCount() > 0);
+            assertTrue(database.logBytes() < 2 * 1_024 + database.liveBytes());
+            assertEquals(4, database.size());
+            assertArrayEquals(new byte[] {49, 3}, database.readOrder(3));
+        }
+        try (LogStructuredDatabase database = LogStructuredDatabase.open(directory, 1_024)) {
+            assertEquals(4, database.size());
+            assertArrayEquals(new byte[] {49, 0}, database.readOrder(0));
+            assertThrows(IllegalArgumentException.class, () -> database.saveOrder(-1, new byte[0]));
+        }
+    }
+
+    @Test
+    @DisplayName("LogStructuredDatabase descarta los registros corruptos al compactar")
+    void testLogStructuredDatabaseSkipsCorruptRecordsOnCompaction(@TempDir Path directory) throws IOException {
+        Path log = directory.resolve("orders.log");
+        try (LogStructuredDatabase database = LogStructuredDatabase.open(directory, 1 << 20)) {
+            database.saveOrder(1, new byte[] {1});
+            database.saveOrder(2, new byte[] {2});
+            database.saveOrder(3, new byte[] {3});
+            try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(new byte[] {9}), LogStructuredDatabase.HEADER_SIZE);
+            }
+            assertThrows(IllegalStateException.class, () -> database.readOrder(1));
+
+            database.compact();
+            assertEquals(1, database.corruptRecordCount());
+            assertEquals(2, database.size());
+            assertFalse(database.contains(1));
+            assertEquals(Files.size(log), database.logBytes());
+            database.saveOrder(4, new byte[] {4});
+            assertArrayEquals(new byte[] {3}, database.readOrder(3));
+        }
+        try (LogStructuredDatabase database = LogStructuredDatabase.open(directory, 1 << 20)) {
+            assertEquals(3, database.size());
+            assertArrayEquals(new byte[] {2}, database.readOrder(2));
+            assertArrayEquals(new byte[] {4}, database.readOrder(4));
+        }
+    }
+
+    @Test
+    @DisplayName("ResourcePool reutiliza recursos y respeta el tamaño máximo")
+    void testResourcePoolReusesAndBoundsResources() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        List<Object> destroyed = new ArrayList<>();
+        ResourcePool<Object> pool = new ResourcePool<>(() -> {
+            created.incrementAndGet();
+            return new Object();
+        }, destroyed::add, 2);
+
+        Object first = pool.acquire(1, TimeUnit.SECONDS);
+        Object second = pool.acquire(1, TimeUnit.SECONDS);
+        assertNotSame(first, second);
+        assertEquals(2, pool.borrowedCount());
+        assertThrows(TimeoutException.class, () -> pool.acquire(10, TimeUnit.MILLISECONDS));
+        assertEquals(1, pool.timeoutCount());
+
+        pool.release(first);
+        assertSame(first, pool.acquire(1, TimeUnit.SECONDS));
+        assertEquals(2, created.get());
+        assertEquals(4, pool.waitTimes().count());
+        assertTrue(pool.waitTimes().percentileNanos(100) >= TimeUnit.MILLISECONDS.toNanos(10) / 2);
+
+        pool.invalidate(second);
+        assertEquals(1, pool.size());
+        assertEquals(List.of(second), destroyed);
+        assertThrows(IllegalStateException.class, () -> pool.release(second));
+        assertThrows(IllegalStateException.class, () -> pool.invalidate(new Object()));
+        pool.release(first);
+        assertThrows(IllegalStateException.class, () -> pool.release(first));
+        assertEquals(0, pool.borrowedCount());
+        pool.close();
+        assertEquals(List.of(second, first), destroyed);
+        assertThrows(IllegalStateException.class, () -> pool.acquire(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("WaitTimeHistogram resuelve los percentiles dentro de cada potencia de dos")
+    void testWaitTimeHistogramKeepsSubBucketPrecision() {
+        WaitTimeHistogram histogram = new WaitTimeHistogram();
+        for (int i = 0; i < 100; i++) {
+            histogram.record(600_000);
+        }
+        histogram.record(1_000_000);
+        histogram.record(-5);
+
+        assertEquals(102, histogram.count());
+        assertEquals(1_000_000, histogram.maxNanos());
+        assertEquals(0, histogram.percentileNanos(0));
+        long median = histogram.percentileNanos(50);
+        assertTrue(median >= 600_000 && median < 650_000, "Mediana: " + median);
+        assertEquals(1_000_000, histogram.percentileNanos(100));
+        assertEquals(101, histogram.countAtMost(650_000));
+        assertEquals(1, histogram.countAtMost(500_000));
+        assertThrows(IllegalArgumentException.class, () -> histogram.percentileNanos(101));
+    }
+
+    @Test
+    @DisplayName("ResourcePool entrega los recursos liberados en orden de llegada")
+    void testResourcePoolHandsOffFairly() throws Exception {
+        ResourcePool<Object> pool = new ResourcePool<>(Object::new, 1);
+        Object resource = pool.acquire(1, TimeUnit.SECONDS);
+        List<String> order = new CopyOnWriteArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            String name = "espera-" + i;
+            Thread thread = new Thread(() -> {
+                try {
+                    Object borrowed = pool.acquire(10, TimeUnit.SECONDS);
+                    order.add(name);
+                    pool.release(borrowed);
+                } catch (Exception e) {
+                    order.add("error");
+                }
+            });
+            thread.start();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (pool.waitingCount() < i + 1 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            threads.add(thread);
+        }
+        pool.release(resource);
+        for (Thread thread : threads) {
+            thread.join(10_000);
+        }
+        assertEquals(List.of("espera-0", "espera-1", "espera-2"), order);
+        assertEquals(1, pool.idleCount());
+    }
+
+    @Test
+    @DisplayName("PooledDatabase limita la concurrencia sobre el backend en memoria")
+    void testPooledDatabaseBoundsConcurrentWrites() throws InterruptedException {
+        InMemoryDatabase backend = new InMemoryDatabase(200, TimeUnit.MICROSECONDS);
+        ResourcePool<OrderStore> pool = new ResourcePool<>(backend::openSession, 2);
+        PooledDatabase database = new PooledDatabase(pool, 10, TimeUnit.SECONDS);
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            for (int i = 1; i <= 120; i++) {
+                long orderId = i;
+                executor.execute(() -> new OrderProcessor(database).processOrder());
+                executor.execute(() -> database.saveOrder(orderId * 1_000));
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        }
+        assertEquals(240, backend.size());
+        assertTrue(backend.contains(120_000));
+        assertTrue(backend.peakConcurrentWrites() <= 2);
+        assertEquals(2, backend.sessionCount());
+        assertEquals(240, pool.waitTimes().count());
+        assertEquals(0, pool.borrowedCount());
+    }
+
+    @Test
+    @DisplayName("InMemoryDatabase no reutiliza identificadores explícitos en pedidos anónimos")
+    void testInMemoryDatabaseSkipsExplicitIds() {
+        InMemoryDatabase database = new InMemoryDatabase();
+        database.saveOrder(1);
+        database.saveOrders(new long[] {2, 5}, 0, 2);
+        database.saveOrder(new Order(OrderKey.of(3), "Ana", 100));
+        database.saveOrder();
+        database.saveOrders(2);
+
+        assertEquals(7, database.size());
+        assertTrue(database.contains(6) && database.contains(8));
+        assertFalse(database.contains(4));
+    }
+
+    @Test
+    @DisplayName("PooledDatabase devuelve la conexión ante errores del llamador y la invalida ante fallos del backend")
+    void testPooledDatabaseReleasesOrInvalidatesConnections() {
+        List<Object> destroyed = new ArrayList<>();
+        OrderStore failing = new OrderStore() {
+            @Override
+            public void saveOrder() {
+                throw new IllegalStateException("Conexión rota");
+            }
+
+            @Override
+            public void saveOrder(long orderId) {
+                if (orderId == 0) {
+                    throw new AssertionError("Fallo fatal");
+                }
+                throw new IllegalArgumentException("Pedido inválido");
+            }
+
+            @Override
+            public void saveOrder(Order order) {
+                throw new IllegalArgumentException("Pedido inválido");
+            }
+
+            @Override
+            public Order loadOrder(OrderKey key) {
+                throw new IllegalArgumentException("Pedido inválido");
+            }
+        };
+        ResourcePool<OrderStore> pool = new ResourcePool<>(() -> failing, destroyed::add, 1);
+        PooledDatabase database = new PooledDatabase(pool, 1, TimeUnit.SECONDS);
+
+        assertThrows(IllegalArgumentException.class, () -> database.saveOrder(7));
+        assertThrows(IllegalArgumentException.class, () -> database.loadOrder(OrderKey.of(7)));
+        assertEquals(1, pool.idleCount());
+        assertEquals(List.of(), destroyed);
+
+        assertThrows(IllegalStateException.class, database::saveOrder);
+        assertThrows(AssertionError.class, () -> database.saveOrder(0));
+        assertEquals(List.of(failing, failing), destroyed);
+        assertEquals(0, pool.borrowedCount());
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    @DisplayName("OrderRingBuffer entrega todos los pedidos en lotes con cada estrategia de espera")
+    void testOrderRingBufferDeliversInBatches() throws InterruptedException {
+        for (OrderRingBuffer.WaitStrategy strategy : OrderRingBuffer.WaitStrategy.values()) {
+            InMemoryDatabase backend = new InMemoryDatabase();
+            OrderRingBuffer ring = new OrderRingBuffer(backend, 64, strategy, 16);
+            for (long orderId = 1; orderId <= 5_000; orderId++) {
+                ring.publish(orderId);
+            }
+            ring.close();
+
+            assertEquals(5_000, ring.publishedCount());
+            assertEquals(5_000, ring.consumedCount());
+            assertEquals(5_000, backend.size());
+            assertTrue(backend.contains(1) && backend.contains(5_000));
+            assertTrue(ring.batchCount() <= backend.roundTrips());
+            assertTrue(backend.roundTrips() < 5_000);
+            assertEquals(0, ring.failedCount());
+        }
+    }
+
+    @Test
+    @DisplayName("OrderRingBuffer aplica contrapresión cuando el anillo está lleno")
+    void testOrderRingBufferBackPressure() throws InterruptedException {
+        CountDownLatch saving = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> saved = new CopyOnWriteArrayList<>();
+        KeyedDatabase slowBackend = new KeyedDatabase() {
+            @Override
+            public void saveOrder() {
+            }
+
+            @Override
+            public void saveOrder(long orderId) {
+                saving.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                saved.add(orderId);
+            }
+
+            @Override
+            public void saveOrder(Order order) {
+                saveOrder(order.getKey().getOrderId());
+            }
+        };
+        OrderRingBuffer ring = new OrderRingBuffer(slowBackend, 4, OrderRingBuffer.WaitStrategy.PARK, 4);
+        ring.publish(0);
+        assertTrue(saving.await(5, TimeUnit.SECONDS));
+        assertTrue(ring.tryPublish(1));
+        assertTrue(ring.tryPublish(2));
+        assertTrue(ring.tryPublish(3));
+        assertFalse(ring.tryPublish(4));
+
+        AtomicReference<RuntimeException> rejection = new AtomicReference<>();
+        Thread intruder = new Thread(() -> {
+            try {
+                ring.publish(9);
+            } catch (IllegalStateException e) {
+                rejection.set(e);
+            }
+        });
+        intruder.start();
+        intruder.join();
+        assertNotNull(rejection.get(), "Un segundo productor debe ser rechazado");
+
+        release.countDown();
+        ring.close();
+        assertEquals(List.of(0L, 1L, 2L, 3L), saved);
+        assertThrows(IllegalStateException.class, () -> ring.publish(5));
+        assertThrows(IllegalArgumentException.class,
+            () -> new OrderRingBuffer(slowBackend, 6, OrderRingBuffer.WaitStrategy.YIELD, 4));
+    }
+
+    @Test
+    @DisplayName("OrderRingBuffer reintenta los lotes fallidos y avisa al manejador cuando se agotan")
+    void testOrderRingBufferRetriesAndReportsFailures() {
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicInteger anonymous = new AtomicInteger();
+        InMemoryDatabase backend = new InMemoryDatabase();
+        KeyedDatabase flakyBackend = new KeyedDatabase() {
+            @Override
+            public void saveOrder() {
+                anonymous.incrementAndGet();
+            }
+
+            @Override
+            public void saveOrder(long orderId) {
+                if (orderId == 13 || attempts.incrementAndGet() == 1) {
+                    throw new IllegalStateException("Fallo transitorio");
+                }
+                backend.saveOrder(orderId);
+            }
+
+            @Override
+            public void saveOrder(Order order) {
+                saveOrder(order.getKey().getOrderId());
+            }
+        };
+        List<Long> reported = new CopyOnWriteArrayList<>();
+        OrderRingBuffer ring = new OrderRingBuffer(flakyBackend, 8, OrderRingBuffer.WaitStrategy.PARK, 1, 2,
+            (orderIds, offset, length, error) -> {
+                for (int i = offset; i < offset + length; i++) {
+                    reported.add(orderIds[i]);
+                }
+            });
+        ring.publish(1);
+        ring.publish(13);
+        ring.saveOrder();
+        ring.close();
+
+        assertTrue(backend.contains(1));
+        assertEquals(1, backend.size());
+        assertEquals(1, anonymous.get());
+        assertEquals(List.of(13L), reported);
+        assertEquals(1, ring.failedCount());
+        assertEquals(3, ring.retryCount());
+        assertEquals("Fallo transitorio", ring.lastFailure().getMessage());
+        assertThrows(IllegalArgumentException.class, () -> ring.publish(-1));
+    }
+
+    @Test
+    @DisplayName("OrderRingBuffer reintenta pedido a pedido solo lo que falta tras un lote fallido (entrega al menos una vez)")
+    void testOrderRingBufferRetriesUnsavedSuffix() throws InterruptedException {
+        CountDownLatch saving = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Set<Long> failOnce = ConcurrentHashMap.newKeySet();
+        failOnce.addAll(List.of(3L, 4L));
+        List<Long> saved = new CopyOnWriteArrayList<>();
+        KeyedDatabase flakyBackend = new KeyedDatabase() {
+            @Override
+            public void saveOrder() {
+            }
+
+            @Override
+            public void saveOrder(long orderId) {
+                if (orderId == 0) {
+                    saving.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                if (failOnce.remove(orderId)) {
+                    throw new IllegalStateException("Fallo transitorio");
+                }
+                saved.add(orderId);
+            }
+
+            @Override
+            public void saveOrder(Order order) {
+                saveOrder(order.getKey().getOrderId());
+            }
+        };
+        OrderRingBuffer ring = new OrderRingBuffer(flakyBackend, 8, OrderRingBuffer.WaitStrategy.PARK, 8);
+        ring.publish(0);
+        assertTrue(saving.await(5, TimeUnit.SECONDS));
+        for (long orderId = 1; orderId <= 5; orderId++) {
+            ring.publish(orderId);
+        }
+        release.countDown();
+        ring.close();
+
+        assertEquals(List.of(0L, 1L, 2L, 1L, 2L, 3L, 4L, 5L), saved);
+        assertEquals(2, ring.retryCount());
+        assertEquals(0, ring.failedCount());
+        assertNull(ring.consumerFailure());
+    }
+
+    @Test
+    @DisplayName("OrderRingBuffer sin manejador de fallos detiene el consumidor y avisa al productor")
+    void testOrderRingBufferSurfacesFailuresByDefault() {
+        KeyedDatabase failingBackend = new KeyedDatabase() {
+            @Override
+            public void saveOrder() {
+                throw new IllegalStateException("Base de datos caída");
+            }
+
+            @Override
+            public void saveOrder(long orderId) {
+                throw new IllegalStateException("Base de datos caída");
+            }
+
+            @Override
+            public void saveOrder(Order order) {
+                saveOrder(order.getKey().getOrderId());
+            }
+        };
+        OrderRingBuffer ring = new OrderRingBuffer(failingBackend, 2, OrderRingBuffer.WaitStrategy.PARK, 1);
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> {
+            for (int i = 0; i < 1_000; i++) {
+                ring.saveOrder();
+            }
+        });
+        assertEquals("Base de datos caída", error.getCause().getMessage());
+        assertSame(ring.lastFailure(), ring.consumerFailure());
+        assertEquals(2, ring.retryCount());
+        ring.close();
+    }
+
+    @Test
+    @DisplayName("OrderRingBuffer propaga al productor un error fatal del consumidor")
+    void testOrderRingBufferPropagatesFatalConsumerError() {
+        KeyedDatabase brokenBackend = new KeyedDatabase() {
+            @Override
+            public void saveOrder() {
+                throw new AssertionError("Consumidor roto");
+            }
+
+            @Override
+            public void saveOrder(long orderId) {
+                throw new AssertionError("Consumidor roto");
+            }
+
+            @Override
+            public void saveOrder(Order order) {
+                saveOrder(order.getKey().getOrderId());
+            }
+        };
+        OrderRingBuffer ring = new OrderRingBuffer(brokenBackend, 2, OrderRingBuffer.WaitStrategy.PARK, 1);
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> {
+            for (int i = 0; i < 1_000; i++) {
+                ring.saveOrder();
+            }
+        });
+        assertTrue(error.getCause() instanceof AssertionError);
+        assertTrue(ring.consumerFailure() instanceof AssertionError);
+        ring.close();
+    }
+
+    @Test
+    @DisplayName("ShardedDatabase reparte los pedidos de forma estable y equilibrada")
+    void testShardedDatabaseBalancesOrders() {
+        ShardedDatabase database = new ShardedDatabase(160);
+        List<InMemoryDatabase> shards = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            InMemoryDatabase shard = new InMemoryDatabase();
+            shards.add(shard);
+            database.addShard("shard-" + i, shard);
+        }
+        for (long orderId = 0; orderId < 20_000; orderId++) {
+            database.saveOrder(orderId);
+        }
+
+        assertEquals(20_000, shards.stream().mapToInt(InMemoryDatabase::size).sum());
+        for (long count : database.ordersPerShard().values()) {
+            assertTrue(count > 3_500 && count < 6_500, "Shard desequilibrado: " + count);
+        }
+        String owner = database.shardFor(42);
+        assertEquals(owner, database.shardFor(42));
+        assertTrue(shards.get(Integer.parseInt(owner.substring("shard-".length()))).contains(42));
+        assertThrows(IllegalArgumentException.class, () -> database.addShard("shard-0", new InMemoryDatabase()));
+    }
+
+    @Test
+    @DisplayName("ShardedDatabase solo reubica los pedidos del shard añadido o retirado")
+    void testShardedDatabaseMinimalRemapping() {
+        ShardedDatabase database = new ShardedDatabase(160);
+        for (int i = 0; i < 4; i++) {
+            database.addShard("shard-" + i, new InMemoryDatabase());
+        }
+        int keys = 20_000;
+        String[] before = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            before[i] = database.shardFor(i);
+        }
+
+        database.addShard("shard-4", new InMemoryDatabase());
+        int moved = 0;
+        for (int i = 0; i < keys; i++) {
+            String after = database.shardFor(i);
+            if (!after.equals(before[i])) {
+                assertEquals("shard-4", after);
+                moved++;
+            }
+        }
+        assertTrue(moved > keys / 10 && moved < keys * 3 / 10, "Reubicados: " + moved);
+
+        assertTrue(database.removeShard("shard-4"));
+        assertTrue(database.removeShard("shard-1"));
+        for (int i = 0; i < keys; i++) {
+            if (!before[i].equals("shard-1")) {
+                assertEquals(before[i], database.shardFor(i));
+            }
+        }
+        assertFalse(database.removeShard("shard-1"));
+        assertEquals(3, database.shardCount());
+
+        InMemoryDatabase anonymous = new InMemoryDatabase();
+        ShardedDatabase single = new ShardedDatabase(8);
+        single.addShard("único", anonymous);
+        single.saveOrder();
+        single.saveOrder();
+        assertEquals(2, anonymous.size());
+        assertTrue(anonymous.contains(1) && anonymous.contains(2));
+        assertThrows(IllegalStateException.class, () -> new ShardedDatabase(8).saveOrder());
+    }
+
+    @Test
+    @DisplayName("OrderKey identifica un pedido por origen e identificador")
+    void testOrderKeyIdentity() {
+        OrderKey key = new OrderKey("web", 7);
+        assertEquals(new OrderKey("web", 7), key);
+        assertEquals(new OrderKey("web", 7).hashCode(), key.hashCode());
+        assertEquals(new OrderKey("web", 7).fingerprint(), key.fingerprint());
+        assertNotEquals(new OrderKey("app", 7), key);
+        assertNotEquals(OrderKey.of(7), key);
+        assertEquals("web#7", key.toString());
+        assertThrows(IllegalArgumentException.class, () -> new OrderKey(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> OrderKey.of(-1));
+
+        orderProcessor.processOrder(key);
+        String output = outputStream.toString();
+        assertTrue(output.contains("Procesando pedido web#7"));
+        assertTrue(output.contains("MySQL"));
+    }
+
+    @Test
+    @DisplayName("DeduplicatingDatabase descarta reintentos sin llegar a la base de datos")
+    void testDeduplicatingDatabaseDropsRetries() {
+        InMemoryDatabase backend = new InMemoryDatabase();
+        DeduplicatingDatabase database = new DeduplicatingDatabase(backend, 10_000, 0.01);
+        KeyedOrderProcessor processor = new KeyedOrderProcessor(database);
+        for (long orderId = 0; orderId < 5_000; orderId++) {
+            processor.processOrder(new OrderKey("web", orderId));
+            if (orderId % 4 == 0) {
+                processor.processOrder(new OrderKey("web", orderId));
+            }
+        }
+
+        assertEquals(5_000, backend.size());
+        assertEquals(5_000, backend.roundTrips());
+        assertEquals(5_000, database.savedCount());
+        assertEquals(1_250, database.duplicateCount());
+        assertTrue(database.falsePositiveCount() < 150, "Falsos positivos: " + database.falsePositiveCount());
+        assertTrue(database.hashCount() >= 6);
+    }
+
+    @Test
+    @DisplayName("DeduplicatingDatabase rota generaciones para acotar la memoria")
+    void testDeduplicatingDatabaseRotatesGenerations() {
+        InMemoryDatabase backend = new InMemoryDatabase();
+        DeduplicatingDatabase database = new DeduplicatingDatabase(backend, 100, 0.001);
+        for (long orderId = 0; orderId < 1_000; orderId++) {
+            database.saveOrder(orderId);
+        }
+        assertEquals(9, database.rotationCount());
+        assertEquals(200, database.trackedKeys());
+
+        database.saveOrder(999);
+        database.saveOrder(850);
+        assertEquals(2, database.duplicateCount());
+        database.saveOrder(0);
+        assertEquals(2, database.duplicateCount());
+        assertEquals(1_001, database.savedCount());
+        assertThrows(IllegalArgumentException.class, () -> new DeduplicatingDatabase(backend, 10, 1.5));
+    }
+
+    @Test
+    @DisplayName("DeduplicatingDatabase permite reintentar si el guardado falla")
+    void testDeduplicatingDatabaseReleasesFailedSaves() {
+        AtomicInteger attempts = new AtomicInteger();
+        OrderStore flaky = new OrderStore() {
+            @Override
+            public void saveOrder() {
+            }
+
+            @Override
+            public void saveOrder(long orderId) {
+                if (attempts.incrementAndGet() == 1) {
+                    throw new IllegalStateException("caída");
+                }
+            }
+
+            @Override
+            public void saveOrder(Order order) {
+                saveOrder(order.getKey().getOrderId());
+            }
+
+            @Override
+            public Order loadOrder(OrderKey key) {
+                return null;
+            }
+        };
+        DeduplicatingDatabase database = new DeduplicatingDatabase(flaky, 100, 0.01);
+        OrderKey key = new OrderKey("app", 1);
+        assertThrows(IllegalStateException.class, () -> database.saveOrder(key));
+        database.saveOrder(key);
+        database.saveOrder(key);
+        assertEquals(2, attempts.get());
+        assertEquals(1, database.savedCount());
+        assertEquals(1, database.duplicateCount());
+    }
+
+    @Test
+    @DisplayName("DeduplicatingDatabase hace esperar al reintento mientras el primer guardado está en curso")
+    void testDeduplicatingDatabaseWaitsForInFlightSaves() throws Exception {
+        CountDownLatch saving = new CountDownLatch(1);
+        CountDownLatch fail = new CountDownLatch(1);
+        AtomicInteger attempts = new AtomicInteger();
+        OrderStore slow = new OrderStore() {
+            @Override
+            public void saveOrder() {
+            }
+
+            @Override
+            public void saveOrder(long orderId) {
+                if (attempts.incrementAndGet() == 1) {
+                    saving.countDown();
+                    try {
+                        fail.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new IllegalStateException("caída");
+                }
+            }
+
+            @Override
+            public void saveOrder(Order order) {
+                saveOrder(order.getKey().getOrderId());
+            }
+
+            @Override
+            public Order loadOrder(OrderKey key) {
+                return null;
+            }
+        };
+        DeduplicatingDatabase database = new DeduplicatingDatabase(slow, 100, 0.01);
+        OrderKey key = new OrderKey("app", 1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> database.saveOrder(key));
+        assertTrue(saving.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> retry = CompletableFuture.runAsync(() -> database.saveOrder(key));
+        Thread.sleep(50);
+        assertFalse(retry.isDone(), "El reintento debe esperar al primer guardado");
+        assertEquals(0, database.trackedKeys());
+
+        fail.countDown();
+        assertThrows(Exception.class, () -> first.get(5, TimeUnit.SECONDS));
+        retry.get(5, TimeUnit.SECONDS);
+        assertEquals(2, attempts.get());
+        assertEquals(1, database.savedCount());
+        assertEquals(0, database.duplicateCount());
+    }
+
+    @Test
+    @DisplayName("Order valida sus datos y MySQLDatabase no admite lecturas")
+    void testOrderPayloadAndUnsupportedRead() {
+        Order order = new Order(new OrderKey("web", 1), " Ana ", 12_100);
+        assertEquals("Ana", order.getCustomer());
+        assertEquals(new Order(new OrderKey("web", 1), "Ana", 12_100), order);
+        assertThrows(IllegalArgumentException.class, () -> new Order(null, "Ana", 1));
+        assertThrows(IllegalArgumentException.class, () -> new Order(OrderKey.of(1), " ", 1));
+        assertThrows(IllegalArgumentException.class, () -> new Order(OrderKey.of(1), "Ana", -1));
+        assertFalse(OrderReader.class.isAssignableFrom(MySQLDatabase.class));
+
+        orderProcessor.processOrder(order);
+        assertTrue(outputStream.toString().contains("Procesando pedido web#1"));
+    }
+
+    @Test
+    @DisplayName("NearCacheDatabase lee a través de la caché e invalida al guardar")
+    void testNearCacheDatabaseReadThroughAndInvalidation() {
+        InMemoryDatabase backend = new InMemoryDatabase();
+        NearCacheDatabase database = new NearCacheDatabase(backend, 100);
+        OrderKey key = new OrderKey("web", 5);
+        new KeyedOrderProcessor(database).processOrder(new Order(key, "Ana", 1_000));
+        long writes = backend.roundTrips();
+
+        assertEquals(1_000, database.loadOrder(key).getTotalCents());
+        assertEquals(1_000, database.loadOrder(key).getTotalCents());
+        assertEquals(1, database.hitCount());
+        assertEquals(1, database.missCount());
+        assertEquals(writes + 1, backend.roundTrips());
+
+        database.saveOrder(new Order(key, "Ana", 2_500));
+        assertEquals(2_500, database.loadOrder(key).getTotalCents());
+        assertEquals(2, database.missCount());
+        assertEquals(2, database.invalidationCount());
+        assertNull(database.loadOrder(new OrderKey("web", 404)));
+        assertEquals(1, database.size());
+    }
+
+    @Test
+    @DisplayName("NearCacheDatabase protege los pedidos frecuentes frente a un barrido")
+    void testNearCacheDatabaseResistsScans() {
+        InMemoryDatabase backend = new InMemoryDatabase();
+        for (long orderId = 0; orderId < 20_000; orderId++) {
+            backend.saveOrder(new Order(OrderKey.of(orderId), "Cliente " + orderId, orderId));
+        }
+        NearCacheDatabase database = new NearCacheDatabase(backend, 100);
+        long hotHits = 0;
+        long hotReads = 0;
+        for (int round = 0; round < 200; round++) {
+            for (long orderId = 0; orderId < 50; orderId++) {
+                long before = database.hitCount();
+                assertEquals(orderId, database.loadOrder(OrderKey.of(orderId)).getTotalCents());
+                if (round >= 20) {
+                    hotReads++;
+                    hotHits += database.hitCount() - before;
+                }
+            }
+            for (long orderId = 100 + round * 50L; orderId < 150 + round * 50L; orderId++) {
+                database.loadOrder(OrderKey.of(orderId));
+            }
+        }
+
+        assertTrue(database.size() <= 100);
+        assertEquals(database.size(), database.indexedIdCount());
+        assertTrue(database.evictionCount() > 0);
+        assertTrue(database.rejectionCount() > 0);
+        assertTrue(hotHits > hotReads * 9 / 10, "Aciertos calientes: " + hotHits + "/" + hotReads);
+        assertThrows(IllegalArgumentException.class, () -> new NearCacheDatabase(backend, 1));
+    }
+
+    @Test
+    @DisplayName("Los pedidos completos conservan cliente y total a través de cada base de datos")
+    void testOrdersKeepPayloadThroughEveryDatabase(@TempDir Path directory) throws IOException {
+        Order order = new Order(new OrderKey("web", 7), "Ana", 12_100);
+
+        try (LogStructuredDatabase database = LogStructuredDatabase.open(directory, 1 << 20)) {
+            database.saveOrder(order);
+            database.saveOrder(8);
+        }
+        try (LogStructuredDatabase database = LogStructuredDatabase.open(directory, 1 << 20)) {
+            assertEquals(order, database.loadOrder(order.getKey()));
+            assertNull(database.loadOrder(OrderKey.of(7)));
+            assertNull(database.loadOrder(OrderKey.of(8)));
+            assertNull(database.loadOrder(OrderKey.of(9)));
+        }
+
+        InMemoryDatabase backend = new InMemoryDatabase();
+        OrderRingBuffer ring = new OrderRingBuffer(backend, 8, OrderRingBuffer.WaitStrategy.PARK, 4);
+        ring.saveOrder(order);
+        ring.close();
+        assertEquals(order, backend.loadOrder(order.getKey()));
+
+        InMemoryDatabase slowBackend = new InMemoryDatabase();
+        WriteBehindDatabase writeBehind = new WriteBehindDatabase(
+            slowBackend, 8, 1, TimeUnit.HOURS, 64, WriteBehindDatabase.OverflowPolicy.BLOCK);
+        writeBehind.saveOrder(order);
+        assertEquals(order, writeBehind.loadOrder(order.getKey()));
+        assertNull(slowBackend.loadOrder(order.getKey()));
+        writeBehind.close();
+        assertEquals(order, writeBehind.loadOrder(order.getKey()));
+    }
+
+    @Test
+    @DisplayName("LogStructuredDatabase no deja que otro origen sobrescriba un pedido con el mismo identificador")
+    void testLogStructuredDatabaseRejectsSecondSource(@TempDir Path directory) throws IOException {
+        Order web = new Order(new OrderKey("web", 5), "Ana", 1_000);
+        try (LogStructuredDatabase database = LogStructuredDatabase.open(directory, 1 << 20)) {
+            database.saveOrder(web);
+            assertThrows(IllegalArgumentException.class,
+                () -> database.saveOrder(new Order(new OrderKey("app", 5), "Luis", 2_000)));
+            database.saveOrder(new Order(new OrderKey("web", 5), "Ana", 1_500));
+            database.saveOrder(6);
+            database.saveOrder(new Order(new OrderKey("app", 6), "Luis", 2_000));
+        }
+        try (LogStructuredDatabase database = LogStructuredDatabase.open(directory, 1 << 20)) {
+            assertEquals(1_500, database.loadOrder(new OrderKey("web", 5)).getTotalCents());
+            assertNull(database.loadOrder(new OrderKey("app", 5)));
+            assertEquals(2_000, database.loadOrder(new OrderKey("app", 6)).getTotalCents());
+            assertThrows(IllegalArgumentException.class,
+                () -> database.saveOrder(new Order(new OrderKey("web", 6), "Ana", 1)));
+        }
+    }
+
+    @Test
+    @DisplayName("NearCacheDatabase sigue cacheando con invalidaciones de otras claves y no cuenta lecturas como escrituras")
+    void testNearCacheDatabaseInvalidatesPerKey() throws Exception {
+        InMemoryDatabase backend = new InMemoryDatabase(10, TimeUnit.MILLISECONDS);
+        OrderKey hot = OrderKey.of(1);
+        backend.saveOrder(new Order(hot, "Ana", 100));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        OrderStore slowReads = new OrderStore() {
+            @Override
+            public void saveOrder() {
+                backend.saveOrder();
+            }
+
+            @Override
+            public void saveOrder(long orderId) {
+                backend.saveOrder(orderId);
+            }
+
+            @Override
+            public void saveOrder(Order order) {
+                backend.saveOrder(order);
+            }
+
+            @Override
+            public Order loadOrder(OrderKey key) {
+                loading.countDown();
+                try {
+                    resume.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return backend.loadOrder(key);
+            }
+        };
+        NearCacheDatabase database = new NearCacheDatabase(slowReads, 100);
+        CompletableFuture<Order> read = CompletableFuture.supplyAsync(() -> database.loadOrder(hot));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        database.saveOrders(new long[] {2, 3}, 0, 2);
+        resume.countDown();
+
+        assertEquals(100, read.get(5, TimeUnit.SECONDS).getTotalCents());
+        assertEquals(1, database.size());
+        database.saveOrder(1);
+        assertEquals(0, database.size());
+        backend.saveOrder(new Order(new OrderKey("app", 1), "Luis", 200));
+        database.loadOrder(hot);
+        database.loadOrder(new OrderKey("app", 1));
+        assertEquals(2, database.size());
+        assertEquals(1, database.indexedIdCount());
+        database.saveOrders(new long[] {1}, 0, 1);
+        assertEquals(0, database.size());
+        assertEquals(0, database.indexedIdCount());
+
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        try {
+            List<CompletableFuture<Void>> reads = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                reads.add(CompletableFuture.runAsync(() -> backend.loadOrder(hot), readers));
+            }
+            CompletableFuture.allOf(reads.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+        } finally {
+            readers.shutdown();
+        }
+        assertEquals(1, backend.peakConcurrentWrites());
+    }
 }
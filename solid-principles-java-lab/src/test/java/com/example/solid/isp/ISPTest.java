@@ -7,6 +7,11 @@ import org.junit.jupiter.api.AfterEach;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -90,4 +95,155 @@ class ISPTest {
         assertTrue(bot instanceof Workable && !(bot instanceof Eatable));
         assertTrue(developer instanceof Workable && developer instanceof Eatable);
     }
+
+    @Test
+    @DisplayName("WorkerPool ejecuta Bot y Developer y cuenta por tipo y por trabajador")
+    void testWorkerPoolCountsCompletedWork() throws InterruptedException {
+        List<Workable> batch = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            batch.add(i % 3 == 0 ? new Developer() : new Bot());
+        }
+        try (WorkerPool pool = new WorkerPool(2, 16)) {
+            assertEquals(300, pool.submitAll(batch));
+            pool.submit(developer);
+            assertTrue(pool.drain(10, TimeUnit.SECONDS));
+
+            assertEquals(301, pool.completedCount());
+            assertEquals(0, pool.pendingCount());
+            assertEquals(200, pool.completedCount(Bot.class));
+            assertEquals(101, pool.completedCount(Developer.class));
+            assertEquals(301, Arrays.stream(pool.completedPerWorker()).sum());
+            assertEquals(pool.completedPerWorker().length, pool.queueDepthPerWorker().length);
+        }
+        String output = outputStream.toString();
+        assertEquals(200, output.split("Trabajando", -1).length - 1);
+        assertEquals(101, output.split("Escribiendo código", -1).length - 1);
+    }
+
+    @Test
+    @DisplayName("WorkerPool cuenta fallos y rechaza tareas tras cerrarse")
+    void testWorkerPoolFailuresAndClose() throws InterruptedException {
+        WorkerPool pool = new WorkerPool(1, 4);
+        pool.submit(() -> {
+            throw new IllegalStateException("fallo");
+        });
+        pool.submit(bot);
+        assertTrue(pool.drain(10, TimeUnit.SECONDS));
+        assertEquals(1, pool.failureCount());
+        assertEquals(1, pool.completedCount());
+
+        pool.close();
+        assertTrue(pool.isClosed());
+        assertThrows(RejectedExecutionException.class, () -> pool.submit(bot));
+        assertThrows(IllegalArgumentException.class, () -> pool.submit(null));
+        assertThrows(IllegalArgumentException.class, () -> new WorkerPool(0, 4));
+    }
+
+    @Test
+    @DisplayName("WorkerPool no bloquea drain cuando una tarea lanza un Error")
+    void testWorkerPoolSurvivesErrors() throws InterruptedException {
+        List<Workable> batch = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            batch.add(i == 3 ? () -> {
+                throw new AssertionError("fatal");
+            } : bot);
+        }
+        try (WorkerPool pool = new WorkerPool(1, 16)) {
+            pool.submitAll(batch);
+            pool.submit(() -> {
+                throw new AssertionError("fatal");
+            });
+            pool.submit(bot);
+            assertTrue(pool.drain(10, TimeUnit.SECONDS));
+
+            assertEquals(0, pool.pendingCount());
+            assertEquals(10, pool.completedCount(), "Un Error no debe descartar el resto del lote");
+            assertEquals(2, pool.failureCount());
+            assertEquals("fatal", pool.lastError().getMessage());
+        }
+    }
+
+    @Test
+    @DisplayName("BreakScheduler dispara eat() al vencer el retardo y permite cancelar")
+    void testBreakSchedulerOneShotAndCancel() {
+        BreakScheduler scheduler = new BreakScheduler(10, TimeUnit.MILLISECONDS, 8);
+        List<String> meals = new ArrayList<>();
+        long lunch = scheduler.schedule(() -> meals.add("almuerzo"), 25, TimeUnit.MILLISECONDS);
+        long dinner = scheduler.schedule(() -> meals.add("cena"), 200, TimeUnit.MILLISECONDS);
+        long snack = scheduler.schedule(() -> meals.add("merienda"), 100, TimeUnit.MILLISECONDS);
+
+        assertEquals(3, scheduler.size());
+        assertTrue(scheduler.cancel(snack));
+        assertFalse(scheduler.cancel(snack));
+        assertFalse(scheduler.isScheduled(snack));
+
+        assertEquals(0, scheduler.advance(20, TimeUnit.MILLISECONDS));
+        assertEquals(1, scheduler.tick());
+        assertEquals(List.of("almuerzo"), meals);
+        assertFalse(scheduler.isScheduled(lunch));
+
+        assertEquals(1, scheduler.advance(200, TimeUnit.MILLISECONDS));
+        assertEquals(List.of("almuerzo", "cena"), meals);
+        assertFalse(scheduler.isScheduled(dinner));
+        assertEquals(0, scheduler.size());
+        assertEquals(23, scheduler.currentTick());
+    }
+
+    @Test
+    @DisplayName("BreakScheduler intercala descansos periódicos con work()")
+    void testBreakSchedulerInterleavesBreaksWithWork() {
+        BreakScheduler scheduler = new BreakScheduler(1, TimeUnit.SECONDS, 4);
+        long handle = scheduler.scheduleAtFixedRate(developer, 2, 3, TimeUnit.SECONDS);
+
+        assertEquals(3, scheduler.runWorkday(List.of(bot, developer), 9));
+        String output = outputStream.toString();
+        assertEquals(9, output.split("Trabajando", -1).length - 1);
+        assertEquals(3, output.split("Comiendo", -1).length - 1);
+        assertTrue(output.indexOf("Escribiendo código") < output.indexOf("Comiendo"));
+
+        assertTrue(scheduler.cancel(handle));
+        assertEquals(0, scheduler.runWorkday(List.of(bot), 6));
+        assertThrows(IllegalArgumentException.class, () -> new BreakScheduler(1, TimeUnit.SECONDS, 6));
+        assertThrows(IllegalArgumentException.class,
+            () -> scheduler.scheduleAtFixedRate(developer, 1, 0, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("BreakScheduler tolera cancelaciones desde dentro de eat()")
+    void testBreakSchedulerCancelFromCallback() {
+        BreakScheduler scheduler = new BreakScheduler(1, TimeUnit.MILLISECONDS, 16);
+        long[] handles = new long[2];
+        int[] meals = new int[2];
+        handles[0] = scheduler.scheduleAtFixedRate(() -> {
+            meals[0]++;
+            scheduler.cancel(handles[0]);
+            scheduler.cancel(handles[1]);
+        }, 5, 5, TimeUnit.MILLISECONDS);
+        handles[1] = scheduler.schedule(() -> meals[1]++, 5, TimeUnit.MILLISECONDS);
+
+        scheduler.advance(50, TimeUnit.MILLISECONDS);
+        assertEquals(1, meals[0]);
+        assertEquals(0, meals[1]);
+        assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    @DisplayName("BreakScheduler acumula el tiempo sobrante y aísla los fallos de eat()")
+    void testBreakSchedulerCarriesRemainderAndIsolatesFailures() {
+        BreakScheduler scheduler = new BreakScheduler(10, TimeUnit.MILLISECONDS, 8);
+        List<String> meals = new ArrayList<>();
+        scheduler.schedule(() -> {
+            throw new IllegalStateException("sin comida");
+        }, 30, TimeUnit.MILLISECONDS);
+        scheduler.schedule(() -> meals.add("almuerzo"), 30, TimeUnit.MILLISECONDS);
+
+        for (int i = 0; i < 5; i++) {
+            scheduler.advance(6, TimeUnit.MILLISECONDS);
+        }
+        assertEquals(3, scheduler.currentTick());
+        assertEquals(List.of("almuerzo"), meals);
+        assertEquals(1, scheduler.failureCount());
+        assertEquals(0, scheduler.size());
+        assertThrows(IllegalArgumentException.class, () -> scheduler.advance(-1, TimeUnit.MILLISECONDS));
+    }
 }
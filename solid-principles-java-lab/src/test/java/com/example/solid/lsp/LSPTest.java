@@ -6,6 +6,9 @@ import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -96,4 +99,188 @@ class LSPTest {
                              "Todos los Drivable deben poder conducirse");
         }
     }
+
+    @Test
+    @DisplayName("FleetSimulator con hilos de plataforma conduce y recarga cada vehículo según el tick")
+    void testFleetSimulatorPlatformMode() throws InterruptedException {
+        AtomicInteger drives = new AtomicInteger();
+        AtomicInteger refuels = new AtomicInteger();
+        class CountingCar implements Refuelable, Drivable {
+            @Override
+            public void refuel() {
+                refuels.incrementAndGet();
+            }
+
+            @Override
+            public void drive() {
+                drives.incrementAndGet();
+            }
+        }
+        List<Drivable> fleet = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            fleet.add(new CountingCar());
+            fleet.add(drives::incrementAndGet);
+        }
+
+        FleetSimulationReport report = new FleetSimulator(fleet, 500, FleetSimulator.ThreadMode.PLATFORM, 4)
+            .run(10, 5);
+
+        assertEquals(600, drives.get());
+        assertEquals(60, refuels.get(), "Solo los vehículos Refuelable se recargan, en los ticks 0 y 5");
+        assertEquals(600, report.getVehicleTicks());
+        assertTrue(report.ticksPerSecond() > 0);
+        assertTrue(report.getP99Nanos() <= report.getMaxNanos());
+        assertTrue(report.getP50Nanos() <= report.getP99Nanos());
+    }
+
+    @Test
+    @DisplayName("FleetSimulator usa hilos virtuales solo cuando la JVM los soporta")
+    void testFleetSimulatorVirtualMode() throws InterruptedException {
+        List<Drivable> fleet = List.of(new ElectricCar(), new Car());
+        if (!FleetSimulator.isVirtualThreadSupported()) {
+            assertThrows(UnsupportedOperationException.class,
+                         () -> new FleetSimulator(fleet, 100, FleetSimulator.ThreadMode.VIRTUAL));
+            return;
+        }
+        FleetSimulationReport report = new FleetSimulator(fleet, 100, FleetSimulator.ThreadMode.VIRTUAL).run(3, 1);
+        assertEquals(6, report.getVehicleTicks());
+        assertTrue(outputStream.toString().contains("Tanqueando"));
+    }
+
+    @Test
+    @DisplayName("FleetSimulator propaga los fallos de un vehículo")
+    void testFleetSimulatorPropagatesFailures() {
+        List<Drivable> fleet = List.of(() -> {
+            throw new IllegalStateException("Motor averiado");
+        });
+        FleetSimulator simulator = new FleetSimulator(fleet, 1_000, FleetSimulator.ThreadMode.PLATFORM, 1);
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> simulator.run(2, 1));
+        assertEquals("Motor averiado", error.getCause().getMessage());
+        assertThrows(IllegalArgumentException.class,
+                     () -> new FleetSimulator(null, 10, FleetSimulator.ThreadMode.PLATFORM));
+    }
+
+    @Test
+    @DisplayName("FleetStore guarda el estado de la flota en arreglos primitivos")
+    void testFleetStoreState() {
+        FleetStore store = new FleetStore(1);
+        int carIndex = store.add(car, 0.8);
+        int electricIndex = store.add(electricCar, 0.5);
+
+        store.recordTrip(carIndex, 120.0, 0.3);
+        store.recordTrips(10.0, 0.1);
+
+        assertEquals(2, store.size());
+        assertEquals(FleetStore.COMBUSTION, store.type(carIndex));
+        assertEquals(FleetStore.ELECTRIC, store.type(electricIndex));
+        assertEquals(130.0, store.odometer(carIndex), 0.0001);
+        assertEquals(0.0, store.energyLevel(electricIndex), 0.0001, "El nivel no baja de cero");
+        assertSame(electricCar, store.vehicle(electricIndex));
+        assertThrows(IllegalArgumentException.class, () -> store.add(car, 1.5));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.energyLevel(5));
+    }
+
+    @Test
+    @DisplayName("RefuelScheduler recarga primero los vehículos con menos combustible y nunca los eléctricos")
+    void testRefuelSchedulerBatchesLowestFuelFirst() {
+        FleetStore store = new FleetStore();
+        List<Integer> refuelOrder = new ArrayList<>();
+        double[] levels = {0.15, 0.05, 0.9, 0.0, 0.12, 0.3};
+        for (int i = 0; i < levels.length; i++) {
+            store.add(new RecordingCar(refuelOrder, i), levels[i]);
+        }
+        int electricIndex = store.add(electricCar, 0.0);
+        RefuelScheduler scheduler = new RefuelScheduler(store, 0.2);
+
+        assertEquals(4, scheduler.scan());
+        assertFalse(scheduler.enqueue(electricIndex), "ElectricCar no debe entrar a la cola de recarga");
+        assertFalse(scheduler.isQueued(electricIndex));
+        assertEquals(3, scheduler.peek());
+
+        store.setEnergyLevel(4, 0.01);
+        assertEquals(3, scheduler.dispatch(3));
+        assertEquals(List.of(3, 4, 1), refuelOrder);
+        assertEquals(FleetStore.FULL, store.energyLevel(3));
+
+        store.recordTrip(5, 10.0, 0.25);
+        assertTrue(scheduler.isQueued(5), "Los cambios del almacén deben llegar al planificador");
+        store.recordTrip(0, 10.0, 0.15);
+        assertEquals(0, scheduler.peek());
+        assertEquals(2, scheduler.dispatch(10));
+        assertEquals(List.of(3, 4, 1, 0, 5), refuelOrder);
+        assertEquals(0, scheduler.queued());
+        store.recordTrips(10.0, 0.1);
+        assertEquals(6, scheduler.queued());
+        assertThrows(IllegalStateException.class, () -> new RefuelScheduler(store, 0.5));
+        assertEquals(0.0, store.energyLevel(electricIndex), "El eléctrico no se recarga con combustible");
+    }
+
+    static class RecordingCar implements Refuelable, Drivable {
+        private final List<Integer> refuelOrder;
+        private final int id;
+
+        RecordingCar(List<Integer> refuelOrder, int id) {
+            this.refuelOrder = refuelOrder;
+            this.id = id;
+        }
+
+        @Override
+        public void refuel() {
+            refuelOrder.add(id);
+        }
+
+        @Override
+        public void drive() {
+        }
+    }
+
+    @Test
+    @DisplayName("PartitionedFleet separa los vehículos por capacidad al insertarlos")
+    void testPartitionedFleetCapabilities() {
+        PartitionedFleet fleet = new PartitionedFleet();
+        int carId = fleet.add(car);
+        int electricId = fleet.add(electricCar);
+        for (int i = 0; i < 40; i++) {
+            fleet.add(i % 2 == 0 ? new Car() : new ElectricCar());
+        }
+
+        assertEquals(42, fleet.size());
+        assertEquals(21, fleet.refuelableCount());
+        assertEquals(21, fleet.driveOnlyCount());
+        assertTrue(fleet.hasCapability(carId, PartitionedFleet.REFUELABLE));
+        assertTrue(fleet.hasCapability(electricId, PartitionedFleet.DRIVABLE));
+        assertFalse(fleet.hasCapability(electricId, PartitionedFleet.REFUELABLE));
+        assertEquals(PartitionedFleet.DRIVABLE | PartitionedFleet.REFUELABLE, fleet.capabilities(carId));
+        assertSame(car, fleet.vehicle(carId));
+        assertSame(electricCar, fleet.vehicle(electricId));
+        assertThrows(IllegalArgumentException.class, () -> fleet.add(null));
+    }
+
+    @Test
+    @DisplayName("PartitionedFleet recarga solo la partición Refuelable sin instanceof por elemento")
+    void testPartitionedFleetBulkIteration() {
+        PartitionedFleet fleet = new PartitionedFleet();
+        fleet.add(car);
+        fleet.add(electricCar);
+        fleet.add(new Car());
+
+        outputStream.reset();
+        fleet.refuelAll();
+        String refuelOutput = outputStream.toString();
+        assertEquals(2, refuelOutput.split("Tanqueando", -1).length - 1);
+
+        outputStream.reset();
+        fleet.driveAll();
+        String driveOutput = outputStream.toString();
+        assertEquals(3, driveOutput.split("Conduciendo", -1).length - 1);
+        assertTrue(driveOutput.contains("eléctrico"));
+
+        List<Drivable> driveOnly = new ArrayList<>();
+        fleet.forEachDriveOnly(driveOnly::add);
+        List<Refuelable> refuelables = new ArrayList<>();
+        fleet.forEachRefuelable(refuelables::add);
+        assertEquals(List.of(electricCar), driveOnly);
+        assertEquals(2, refuelables.size());
+    }
 }
@@ -4,6 +4,17 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @DisplayName("Tests para el principio OCP (Open/Closed Principle)")
@@ -197,4 +208,343 @@ class OCPTest {
         assertDoesNotThrow(() -> seniorCalculator.calculate(price));
         assertEquals(30.0, seniorCalculator.calculate(price), 0.01);
     }
+
+    @Test
+    @DisplayName("Los descuentos en centavos son exactos y usan redondeo bancario")
+    void testDiscountInCents() {
+        assertEquals(1_000, regularCalculator.calculateCents(10_000));
+        assertEquals(2_000, vipCalculator.calculateCents(10_000));
+        assertEquals(100, regularCalculator.calculateCents(1_005), "100.5 centavos redondea al par");
+        assertEquals(102, regularCalculator.calculateCents(1_015), "101.5 centavos redondea al par");
+        assertEquals(201, vipCalculator.calculateCents(1_005));
+        assertEquals(8_000, vipCalculator.totalAfterDiscountCents(10_000));
+    }
+
+    @Test
+    @DisplayName("Las estrategias sin versión en centavos usan la conversión por defecto")
+    void testDefaultDiscountInCents() {
+        DiscountStrategy studentDiscount = price -> {
+            if (price < 0) {
+                throw new IllegalArgumentException("El precio no puede ser negativo");
+            }
+            return price * 0.15;
+        };
+        DiscountCalculator studentCalculator = new DiscountCalculator(studentDiscount);
+
+        assertEquals(1_500, studentCalculator.calculateCents(10_000));
+        assertThrows(IllegalArgumentException.class, () -> studentCalculator.calculateCents(-1));
+        assertThrows(IllegalArgumentException.class, () -> regularCalculator.calculateCents(-1));
+    }
+
+    @Test
+    @DisplayName("StackedDiscount aplica el descuento adicional sobre el precio ya descontado")
+    void testStackedDiscount() {
+        DiscountCalculator stackedCalculator = new DiscountCalculator(
+            new StackedDiscount(new RegularCustomerDiscount(), new VipCustomerDiscount()));
+
+        assertEquals(28.0, stackedCalculator.calculate(100.0), 0.0001);
+        assertEquals(72.0, stackedCalculator.totalAfterDiscount(100.0), 0.0001);
+        assertEquals(2_800, stackedCalculator.calculateCents(10_000));
+        assertThrows(IllegalArgumentException.class, () -> stackedCalculator.calculate(-1.0));
+        assertThrows(IllegalArgumentException.class, () -> new StackedDiscount(null, new VipCustomerDiscount()));
+    }
+
+    @Test
+    @DisplayName("DiscountPipeline compilado coincide exactamente con la evaluación anidada")
+    void testCompiledPipelineMatchesNestedEvaluation() {
+        DiscountStrategy fifteenPercent = price -> {
+            if (price < 0) {
+                throw new IllegalArgumentException("El precio no puede ser negativo");
+            }
+            return price * 0.15;
+        };
+        DiscountStrategy percentagesOnly = DiscountPipeline.stack(
+            new RegularCustomerDiscount(), new VipCustomerDiscount(), new PercentageDiscount(333));
+        DiscountStrategy mixed = DiscountPipeline.stack(
+            new VipCustomerDiscount(),
+            new StackedDiscount(new RegularCustomerDiscount(), fifteenPercent),
+            new PercentageDiscount(125));
+
+        DiscountPipeline compiledPercentages = DiscountPipeline.compile(percentagesOnly);
+        DiscountPipeline compiledMixed = DiscountPipeline.compile(mixed);
+        assertTrue(compiledPercentages.isPercentagesOnly());
+        assertEquals(3, compiledPercentages.stageCount());
+        assertFalse(compiledMixed.isPercentagesOnly());
+
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            double price = random.nextDouble() * 10_000;
+            long priceCents = random.nextInt(1_000_000);
+            assertEquals(percentagesOnly.calculateDiscount(price), compiledPercentages.calculateDiscount(price));
+            assertEquals(mixed.calculateDiscount(price), compiledMixed.calculateDiscount(price));
+            assertEquals(percentagesOnly.calculateDiscountCents(priceCents),
+                         compiledPercentages.calculateDiscountCents(priceCents));
+            assertEquals(mixed.calculateDiscountCents(priceCents), compiledMixed.calculateDiscountCents(priceCents));
+        }
+        assertThrows(IllegalArgumentException.class, () -> compiledMixed.calculateDiscount(-5.0));
+    }
+
+    @Test
+    @DisplayName("PercentageDiscount valida el rango de puntos básicos")
+    void testPercentageDiscountRange() {
+        assertThrows(IllegalArgumentException.class, () -> new PercentageDiscount(-1));
+        assertThrows(IllegalArgumentException.class, () -> new PercentageDiscount(10_001));
+        assertEquals(5.0, new PercentageDiscount(500).calculateDiscount(100.0), 0.0001);
+    }
+
+    @Test
+    @DisplayName("El cálculo en bloque coincide con el cálculo precio a precio")
+    void testBulkCalculationMatchesSingleCalls() {
+        double[] prices = {0.0, 10.0, 19.99, 100.0, 12345.67};
+        DiscountStrategy fifteenPercent = price -> {
+            if (price < 0) {
+                throw new IllegalArgumentException("El precio no puede ser negativo");
+            }
+            return price * 0.15;
+        };
+        DiscountCalculator[] calculators = {vipCalculator, new DiscountCalculator(fifteenPercent)};
+
+        for (DiscountCalculator calculator : calculators) {
+            double[] discounts = new double[prices.length];
+            double[] totals = new double[prices.length];
+            calculator.calculateAll(prices, discounts, totals);
+            for (int i = 0; i < prices.length; i++) {
+                assertEquals(calculator.calculate(prices[i]), discounts[i]);
+                assertEquals(calculator.totalAfterDiscount(prices[i]), totals[i]);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("El cálculo en bloque acepta DoubleBuffer directos y respeta sus posiciones")
+    void testBulkCalculationWithDoubleBuffers() {
+        DoubleBuffer prices = ByteBuffer.allocateDirect(4 * Double.BYTES).asDoubleBuffer();
+        prices.put(new double[] {50.0, 100.0, 200.0, 400.0}).flip();
+        prices.position(1);
+        DoubleBuffer discounts = DoubleBuffer.allocate(3);
+        DoubleBuffer totals = ByteBuffer.allocateDirect(3 * Double.BYTES).asDoubleBuffer();
+
+        regularCalculator.calculateAll(prices, discounts, totals);
+
+        assertFalse(prices.hasRemaining());
+        assertEquals(3, discounts.position());
+        assertEquals(10.0, discounts.get(0), 0.0001);
+        assertEquals(40.0, discounts.get(2), 0.0001);
+        assertEquals(180.0, totals.get(1), 0.0001);
+    }
+
+    @Test
+    @DisplayName("El cálculo en bloque mantiene la validación de precios negativos")
+    void testBulkCalculationValidatesPrices() {
+        double[] prices = {10.0, -1.0, 20.0};
+        double[] discounts = new double[3];
+        double[] totals = new double[3];
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> vipCalculator.calculateAll(prices, discounts, totals));
+        assertEquals("El precio no puede ser negativo. Precio: -1.0", error.getMessage());
+        assertThrows(IllegalArgumentException.class,
+                () -> vipCalculator.calculateAll(prices, new double[1], totals));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> vipCalculator.calculateAll(prices, 2, 5, discounts, totals));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> vipCalculator.calculateAll(prices, 2, Integer.MAX_VALUE, discounts, totals));
+        assertThrows(IllegalArgumentException.class,
+                () -> vipCalculator.calculateAll(new double[] {1.0, 2.0}, 1, 1, new double[1], new double[2]));
+    }
+
+    @Test
+    @DisplayName("DiscountStrategyRegistry publica nuevas versiones y cuenta invocaciones por versión")
+    void testStrategyRegistryPublishesVersions() {
+        DiscountStrategyRegistry registry = new DiscountStrategyRegistry(new RegularCustomerDiscount());
+        DiscountCalculator calculator = new DiscountCalculator(registry);
+
+        assertEquals(10.0, calculator.calculate(100.0), 0.0001);
+        assertEquals(90.0, calculator.totalAfterDiscount(100.0), 0.0001);
+        long vipVersion = registry.publish(new VipCustomerDiscount());
+
+        assertEquals(2, vipVersion);
+        assertEquals(vipVersion, registry.currentVersion());
+        assertEquals(20.0, calculator.calculate(100.0), 0.0001);
+        assertEquals(2_000, calculator.calculateCents(10_000));
+        assertEquals(2, registry.invocations(1));
+        assertEquals(2, registry.invocations(vipVersion));
+        assertEquals(0, registry.invocations(99));
+        assertThrows(IllegalArgumentException.class, () -> registry.publish(null));
+
+        DiscountStrategyRegistry bounded = new DiscountStrategyRegistry(new RegularCustomerDiscount(), 2);
+        for (int i = 0; i < 10; i++) {
+            bounded.publish(new VipCustomerDiscount());
+        }
+        assertEquals(2, bounded.retainedVersionCount());
+        new DiscountCalculator(bounded).calculateAll(new double[] {100.0, 200.0}, new double[2], new double[2]);
+        assertEquals(2, bounded.invocations(11));
+        assertEquals(0, bounded.invocations(1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new DiscountStrategyRegistry(new RegularCustomerDiscount(), 0));
+        assertThrows(IllegalArgumentException.class, () -> calculator.calculate(-1.0));
+    }
+
+    @Test
+    @DisplayName("Los lectores ven una versión consistente mientras se cambia la estrategia")
+    void testStrategyRegistryHotSwapUnderLoad() throws Exception {
+        DiscountStrategyRegistry registry = new DiscountStrategyRegistry(new RegularCustomerDiscount(), 256);
+        DiscountCalculator calculator = new DiscountCalculator(registry);
+        double[] prices = new double[1_000];
+        Arrays.fill(prices, 100.0);
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<Long>> readers = new ArrayList<>();
+            for (int t = 0; t < 2; t++) {
+                readers.add(executor.submit(() -> {
+                    double[] discounts = new double[prices.length];
+                    double[] totals = new double[prices.length];
+                    long batches = 0;
+                    while (running.get()) {
+                        calculator.calculateAll(prices, discounts, totals);
+                        for (double discount : discounts) {
+                            assertEquals(discounts[0], discount, "Un lote debe usar una única versión");
+                        }
+                        assertTrue(discounts[0] == 10.0 || discounts[0] == 20.0);
+                        batches++;
+                    }
+                    return batches;
+                }));
+            }
+            for (int i = 0; i < 200; i++) {
+                registry.publish(i % 2 == 0 ? new VipCustomerDiscount() : new RegularCustomerDiscount());
+                Thread.yield();
+            }
+            running.set(false);
+            long batches = 0;
+            for (Future<Long> reader : readers) {
+                batches += reader.get();
+            }
+
+            long invocations = 0;
+            for (long version = 1; version <= registry.currentVersion(); version++) {
+                invocations += registry.invocations(version);
+            }
+            assertEquals(201, registry.currentVersion());
+            assertEquals(batches * prices.length, invocations);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("TieredDiscountRules aplica la tasa de la banda de precio y segmento")
+    void testTieredDiscountRules() {
+        TieredDiscountRules rules = new TieredDiscountRules();
+        rules.addRule("VIP", 0.0, 100.0, 1_000);
+        rules.addRule("VIP", 500.0, 1_000.0, 3_000);
+        rules.addRule("VIP", 100.0, 500.0, 2_000);
+        rules.addRule("Regular", 0.0, 1_000.0, 500);
+
+        DiscountCalculator vipTiers = new DiscountCalculator(rules.forSegment("VIP"));
+        DiscountCalculator regularTiers = new DiscountCalculator(rules.forSegment("Regular"));
+
+        assertEquals(5.0, vipTiers.calculate(50.0), 0.0001);
+        assertEquals(20.0, vipTiers.calculate(100.0), 0.0001, "El límite inferior pertenece a la banda");
+        assertEquals(210.0, vipTiers.calculate(700.0), 0.0001);
+        assertEquals(0.0, vipTiers.calculate(1_000.0), 0.0001, "Fuera de toda banda no hay descuento");
+        assertEquals(25.0, regularTiers.calculate(500.0), 0.0001);
+        assertEquals(2_000, vipTiers.calculateCents(10_000));
+        assertEquals(0.0, new DiscountCalculator(rules.forSegment("Otro")).calculate(50.0));
+        assertThrows(IllegalArgumentException.class, () -> vipTiers.calculate(-1.0));
+    }
+
+    @Test
+    @DisplayName("TieredDiscountRules reconstruye solo el segmento modificado y rechaza solapamientos")
+    void testTieredDiscountRulesIncrementalChanges() {
+        TieredDiscountRules rules = new TieredDiscountRules();
+        for (int i = 0; i < 500; i++) {
+            rules.addRule("Mayorista", i * 10.0, i * 10.0 + 10.0, i % 50);
+        }
+        DiscountStrategy wholesale = rules.forSegment("Mayorista");
+        assertEquals(500, rules.ruleCount("Mayorista"));
+        assertEquals(4_995 * 49 / 10_000.0, wholesale.calculateDiscount(4_995.0), 0.0001);
+
+        assertThrows(IllegalArgumentException.class, () -> rules.addRule("Mayorista", 5.0, 15.0, 100));
+        assertThrows(IllegalArgumentException.class, () -> rules.addRule("Mayorista", 10.0, 5.0, 100));
+        assertThrows(IllegalArgumentException.class, () -> rules.addRule("Mayorista", 6_000.0, 7_000.0, 10_001));
+
+        assertTrue(rules.removeRule("Mayorista", 4_990.0));
+        assertFalse(rules.removeRule("Mayorista", 4_991.0));
+        assertEquals(0.0, wholesale.calculateDiscount(4_995.0));
+        rules.addRule("Mayorista", 4_990.0, 5_000.0, 10_000);
+        assertEquals(4_995.0, wholesale.calculateDiscount(4_995.0), 0.0001);
+    }
+
+    @Test
+    @DisplayName("validatePrices registra las posiciones inválidas sin lanzar excepciones")
+    void testValidatePricesReport() {
+        double[] prices = {10.0, -1.0, 0.0, -0.5, 20.0};
+
+        PriceValidationReport report = new VipCustomerDiscount().validatePrices(prices);
+
+        assertTrue(report.hasErrors());
+        assertEquals(2, report.invalidCount());
+        assertEquals(3, report.validCount());
+        assertEquals(1, report.firstInvalid());
+        assertTrue(report.isValid(2));
+        assertFalse(report.isValid(3));
+        assertFalse(new VipCustomerDiscount().validatePrices(new double[] {1.0, 2.0}).hasErrors());
+    }
+
+    @Test
+    @DisplayName("calculateValid omite las filas marcadas y calcula el resto")
+    void testCalculateValidSkipsFlaggedRows() {
+        double[] prices = {-5.0, 100.0, -1.0, 50.0, -2.0};
+        double[] discounts = new double[prices.length];
+        double[] totals = new double[prices.length];
+        DiscountStrategy fifteenPercent = price -> {
+            if (price < 0) {
+                throw new IllegalArgumentException("El precio no puede ser negativo");
+            }
+            return price * 0.15;
+        };
+
+        for (DiscountCalculator calculator : new DiscountCalculator[] {vipCalculator, new DiscountCalculator(fifteenPercent)}) {
+            PriceValidationReport report = calculator.calculateValid(prices, discounts, totals);
+            assertEquals(3, report.invalidCount());
+            assertTrue(Double.isNaN(discounts[0]));
+            assertTrue(Double.isNaN(totals[2]));
+            assertTrue(Double.isNaN(discounts[4]));
+            assertEquals(calculator.calculate(100.0), discounts[1]);
+            assertEquals(calculator.totalAfterDiscount(50.0), totals[3]);
+        }
+        assertThrows(IllegalArgumentException.class, () -> vipCalculator.calculate(-1.0),
+                     "El cálculo individual debe seguir lanzando la excepción");
+    }
+
+    @Test
+    @DisplayName("validatePrices usa la validación propia de cada estrategia")
+    void testValidatePricesUsesStrategyValidation() {
+        DiscountStrategy capped = new DiscountStrategy() {
+            @Override
+            public double calculateDiscount(double price) {
+                validatePrice(price);
+                return price * 0.5;
+            }
+
+            @Override
+            public boolean isValidPrice(double price) {
+                return price >= 0 && price <= 1_000;
+            }
+        };
+        double[] prices = {10.0, 5_000.0, -1.0, 1_000.0};
+        double[] discounts = new double[prices.length];
+        double[] totals = new double[prices.length];
+
+        PriceValidationReport report = new DiscountCalculator(capped).calculateValid(prices, discounts, totals);
+
+        assertEquals(2, report.invalidCount());
+        assertFalse(report.isValid(1));
+        assertTrue(Double.isNaN(discounts[1]) && Double.isNaN(totals[2]));
+        assertEquals(5.0, discounts[0]);
+        assertEquals(500.0, totals[3]);
+        assertThrows(IllegalArgumentException.class, () -> capped.validatePrice(5_000.0));
+    }
 }
@@ -4,9 +4,28 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -201,4 +220,423 @@ class SRPTest {
         assertTrue(output.contains("Guardando factura..."),
                    "La factura debe guardarse en la BD");
     }
+
+    @Test
+    @DisplayName("InvoiceBatch calcula el mismo total que las facturas individuales")
+    void testInvoiceBatchTotalMatchesInvoices() {
+        InvoiceBatch batch = new InvoiceBatch(2);
+        double expected = 0.0;
+        double[] amounts = {100.0, 50.0, 0.0, 33.33, 150.0};
+        for (double amount : amounts) {
+            Invoice single = new Invoice("Cliente", amount);
+            batch.add(single);
+            expected += single.calculateTotal();
+        }
+
+        assertEquals(amounts.length, batch.size());
+        assertEquals(expected, batch.calculateTotal());
+        assertEquals(121.0, batch.calculateTotal(0), 0.01);
+    }
+
+    @Test
+    @DisplayName("InvoiceBatch codifica los clientes como identificadores de diccionario")
+    void testInvoiceBatchDictionaryEncodesCustomers() {
+        InvoiceBatch batch = new InvoiceBatch();
+        batch.add("Juan", 10.0);
+        batch.add("  María ", 20.0);
+        batch.add("Juan", 30.0);
+
+        assertEquals(2, batch.customerCount());
+        assertEquals(batch.getCustomerId(0), batch.getCustomerId(2));
+        assertEquals("María", batch.getCustomerName(1));
+        assertEquals(1, batch.customerIdOf(" María"));
+        assertEquals(-1, batch.customerIdOf("Pedro"));
+
+        double[] totals = new double[batch.customerCount()];
+        batch.calculateTotalsByCustomer(totals);
+        assertEquals(48.4, totals[batch.customerIdOf("Juan")], 0.01);
+        assertEquals(24.2, totals[batch.customerIdOf("María")], 0.01);
+    }
+
+    @Test
+    @DisplayName("InvoiceBatch valida las filas igual que el constructor de Invoice")
+    void testInvoiceBatchValidatesRows() {
+        InvoiceBatch batch = new InvoiceBatch();
+
+        IllegalArgumentException blank = assertThrows(IllegalArgumentException.class,
+                () -> batch.add("   ", 10.0));
+        assertEquals("El cliente no puede ser nulo o vacío", blank.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> batch.add(null, 10.0));
+        IllegalArgumentException negative = assertThrows(IllegalArgumentException.class,
+                () -> batch.add("Cliente", -1.0));
+        assertEquals("El monto no puede ser negativo", negative.getMessage());
+        assertEquals(0, batch.size(), "Las filas inválidas no deben agregarse");
+    }
+
+    @Test
+    @DisplayName("InvoicePrinter en lote produce el mismo texto que la impresión individual")
+    void testInvoicePrinterBatchMatchesSingleOutput() throws IOException {
+        List<Invoice> invoices = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            invoices.add(new Invoice("Cliente " + i, i * 10.5));
+        }
+        for (Invoice single : invoices) {
+            invoicePrinter.printInvoice(single);
+        }
+        printStream.flush();
+        String expected = outputStream.toString();
+
+        StringBuilder appendable = new StringBuilder();
+        invoicePrinter.printInvoices(invoices, appendable);
+        assertEquals(expected, appendable.toString());
+
+        ByteArrayOutputStream channelTarget = new ByteArrayOutputStream();
+        invoicePrinter.printInvoices(invoices, Channels.newChannel(channelTarget));
+        assertEquals(expected, channelTarget.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("InvoicePrinter en lote conserva el formato que validan las pruebas")
+    void testInvoicePrinterBatchFormat() {
+        invoicePrinter.printInvoices(List.of(invoice, new Invoice("Carlos", 150.0)));
+
+        String output = outputStream.toString();
+        assertTrue(output.contains("Factura para: Cliente Test"));
+        assertTrue(output.contains("Total: 121.0"));
+        assertTrue(output.contains("Factura para: Carlos"));
+        assertTrue(output.contains("Total: 181.5"));
+    }
+
+    @Test
+    @DisplayName("InvoicePrinter en lote lanza excepción si alguna factura es null")
+    void testInvoicePrinterBatchThrowsExceptionForNullInvoice() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> invoicePrinter.printInvoices(Arrays.asList(invoice, null), new StringBuilder()));
+        assertThrows(IllegalArgumentException.class,
+                     () -> invoicePrinter.printInvoices(null, new StringBuilder()));
+    }
+
+    @Test
+    @DisplayName("InvoiceDatabaseSaver persiste facturas en el diario y las recupera al reabrir")
+    void testInvoiceDatabaseSaverJournalRecovery(@TempDir Path directory) throws IOException {
+        try (InvoiceJournal journal = InvoiceJournal.open(directory, 4, 3)) {
+            InvoiceDatabaseSaver saver = new InvoiceDatabaseSaver(journal);
+            List<Invoice> invoices = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                invoices.add(new Invoice("Cliente " + i, i * 2.5));
+            }
+            saver.saveAll(invoices);
+
+            assertEquals(10, journal.size());
+            assertEquals(3, journal.segmentCount(), "El diario debe rotar segmentos de 4 registros");
+            assertTrue(journal.commitCount() < invoices.size(), "Un fsync debe cubrir varias facturas");
+        }
+
+        try (InvoiceJournal reopened = InvoiceJournal.open(directory, 4, 3)) {
+            assertEquals(10, reopened.size());
+            List<String> customers = new ArrayList<>();
+            double[] amountSum = {0.0};
+            reopened.replay((customer, amount) -> {
+                customers.add(customer);
+                amountSum[0] += amount;
+            });
+            assertEquals("Cliente 0", customers.get(0));
+            assertEquals("Cliente 9", customers.get(9));
+            assertEquals(112.5, amountSum[0], 0.001);
+
+            new InvoiceDatabaseSaver(reopened).saveToDatabase(new Invoice("María", 1.0));
+            assertEquals(11, reopened.size());
+        }
+    }
+
+    @Test
+    @DisplayName("El diario ignora un registro final incompleto al recuperarse")
+    void testInvoiceJournalIgnoresTornRecord(@TempDir Path directory) throws IOException {
+        try (InvoiceJournal journal = InvoiceJournal.open(directory, 8, InvoiceJournal.NO_AUTO_COMMIT)) {
+            journal.append(new Invoice("Juan", 10.0));
+            journal.append(new Invoice("Ana", 20.0));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {42}), InvoiceJournal.HEADER_SIZE + InvoiceJournal.RECORD_SIZE + 20);
+        }
+
+        try (InvoiceJournal recovered = InvoiceJournal.open(directory, 8, InvoiceJournal.NO_AUTO_COMMIT)) {
+            assertEquals(1, recovered.size(), "El registro dañado no debe recuperarse");
+            recovered.append(new Invoice("Ana", 20.0));
+            assertEquals(2, recovered.size());
+        }
+    }
+
+    @Test
+    @DisplayName("El diario no resucita registros antiguos tras un registro dañado")
+    void testInvoiceJournalDoesNotResurrectStaleRecords(@TempDir Path directory) throws IOException {
+        try (InvoiceJournal journal = InvoiceJournal.open(directory, 8, InvoiceJournal.NO_AUTO_COMMIT)) {
+            journal.append(new Invoice("Juan", 10.0));
+            journal.append(new Invoice("Ana", 20.0));
+            journal.append(new Invoice("Luis", 30.0));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {42}), InvoiceJournal.HEADER_SIZE + InvoiceJournal.RECORD_SIZE + 20);
+        }
+        try (InvoiceJournal recovered = InvoiceJournal.open(directory, 8, InvoiceJournal.NO_AUTO_COMMIT)) {
+            assertEquals(1, recovered.size());
+            recovered.append(new Invoice("Eva", 40.0));
+        }
+
+        try (InvoiceJournal reopened = InvoiceJournal.open(directory, 2, InvoiceJournal.NO_AUTO_COMMIT)) {
+            List<String> customers = new ArrayList<>();
+            reopened.replay((customer, amount) -> customers.add(customer));
+            assertEquals(List.of("Juan", "Eva"), customers, "Luis no debe reaparecer");
+            assertEquals(8, reopened.recordsPerSegment(), "El tamaño de segmento se lee de la cabecera");
+            for (int i = 0; i < 6; i++) {
+                reopened.append(new Invoice("Cliente " + i, 1.0));
+            }
+            assertEquals(1, reopened.segmentCount());
+        }
+    }
+
+    @Test
+    @DisplayName("El diario trata como vacío un segmento nuevo que quedó sin cabecera")
+    void testInvoiceJournalRecoversHeaderlessSegment(@TempDir Path directory) throws IOException {
+        try (InvoiceJournal journal = InvoiceJournal.open(directory, 2, InvoiceJournal.NO_AUTO_COMMIT)) {
+            journal.append(new Invoice("Juan", 10.0));
+            journal.append(new Invoice("Ana", 20.0));
+        }
+        Files.write(directory.resolve("invoices-00000001.journal"), new byte[InvoiceJournal.HEADER_SIZE / 2]);
+
+        try (InvoiceJournal recovered = InvoiceJournal.open(directory, 8, InvoiceJournal.NO_AUTO_COMMIT)) {
+            assertEquals(2, recovered.size());
+            assertEquals(2, recovered.recordsPerSegment(), "El tamaño se toma del segmento anterior");
+            recovered.append(new Invoice("Luis", 30.0));
+            assertEquals(2, recovered.segmentCount());
+        }
+        try (InvoiceJournal reopened = InvoiceJournal.open(directory, 8, InvoiceJournal.NO_AUTO_COMMIT)) {
+            List<String> customers = new ArrayList<>();
+            reopened.replay((customer, amount) -> customers.add(customer));
+            assertEquals(List.of("Juan", "Ana", "Luis"), customers);
+        }
+    }
+
+    @Test
+    @DisplayName("InvoiceDatabaseSaver sin diario mantiene el comportamiento simulado")
+    void testInvoiceDatabaseSaverStubModeWithInvoice() throws IOException {
+        invoiceSaver.saveToDatabase(invoice);
+        assertTrue(outputStream.toString().contains("Guardando factura..."));
+        assertThrows(IllegalArgumentException.class, () -> invoiceSaver.saveToDatabase(null));
+        assertThrows(IllegalArgumentException.class, () -> new InvoiceDatabaseSaver(null));
+    }
+
+    @Test
+    @DisplayName("InvoiceStreamIngester acumula totales por cliente leyendo el archivo por bloques")
+    void testInvoiceStreamIngesterTotals(@TempDir Path directory) throws IOException {
+        StringBuilder csv = new StringBuilder("cliente,monto\r\n");
+        double expectedTotal = 0.0;
+        double expectedJuan = 0.0;
+        for (int i = 0; i < 2_000; i++) {
+            String customer = i % 3 == 0 ? "Juan" : "María Pérez";
+            double amount = (i % 1_000) / 100.0;
+            csv.append(i % 2 == 0 ? "  " : "").append(customer).append(" , ").append(amount).append("\r\n");
+            double invoiceTotal = new Invoice(customer, amount).calculateTotal();
+            expectedTotal += invoiceTotal;
+            if (customer.equals("Juan")) {
+                expectedJuan += invoiceTotal;
+            }
+        }
+        csv.append("\n");
+        Path file = directory.resolve("facturas.csv");
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+
+        InvoiceStreamIngester ingester = new InvoiceStreamIngester(128, true);
+        assertEquals(2_000, ingester.ingest(file));
+
+        assertEquals(2, ingester.customerCount());
+        assertEquals(expectedTotal, ingester.calculateTotal());
+        assertEquals(expectedJuan, ingester.totalFor("Juan"));
+        assertEquals(expectedTotal - expectedJuan, ingester.totalsByCustomer().get("María Pérez"), 0.0001);
+        assertEquals(0.0, ingester.totalFor("Pedro"));
+    }
+
+    @Test
+    @DisplayName("InvoiceStreamIngester interpreta los montos igual que Double.parseDouble")
+    void testInvoiceStreamIngesterParsesAmountsExactly() throws IOException {
+        String[] amounts = {"0", "0.1", "33.33", "1234567.89", ".5", "7.", "1e3", "12345678901234567890.25"};
+        for (String amount : amounts) {
+            InvoiceStreamIngester ingester = new InvoiceStreamIngester();
+            ingester.ingest(Channels.newChannel(
+                new ByteArrayInputStream(("Cliente," + amount).getBytes(StandardCharsets.UTF_8))));
+            assertEquals(Double.parseDouble(amount) * Invoice.TAX_RATE, ingester.calculateTotal(),
+                         "Monto: " + amount);
+        }
+    }
+
+    @Test
+    @DisplayName("InvoiceStreamIngester aplica las reglas de validación de Invoice")
+    void testInvoiceStreamIngesterValidatesRows() {
+        IllegalArgumentException blank = assertThrows(IllegalArgumentException.class,
+                () -> ingest("Juan,10\n   ,5\n"));
+        assertEquals("Línea 2: El cliente no puede ser nulo o vacío", blank.getMessage());
+
+        IllegalArgumentException negative = assertThrows(IllegalArgumentException.class,
+                () -> ingest("Juan,-10\n"));
+        assertEquals("Línea 1: El monto no puede ser negativo", negative.getMessage());
+
+        for (String amount : new String[] {"NaN", "Infinity", "-Infinity", "1e400"}) {
+            IllegalArgumentException nonFinite = assertThrows(IllegalArgumentException.class,
+                    () -> ingest("Juan,10\nAna," + amount + "\n"), "Monto: " + amount);
+            assertEquals("Línea 2: " + Invoice.NON_FINITE_AMOUNT_MESSAGE, nonFinite.getMessage());
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> ingest("Juan;10\n"));
+        assertThrows(IllegalArgumentException.class, () -> ingest("Juan,abc\n"));
+    }
+
+    private InvoiceStreamIngester ingest(String csv) throws IOException {
+        InvoiceStreamIngester ingester = new InvoiceStreamIngester();
+        ingester.ingest(Channels.newChannel(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))));
+        return ingester;
+    }
+
+    @Test
+    @DisplayName("CustomerRegistry comparte una única instancia por cliente recortado")
+    void testCustomerRegistrySharesCanonicalInstance() {
+        CustomerRegistry registry = new CustomerRegistry(10);
+        Invoice first = new Invoice(new String("  Cliente Test "), 10.0, registry);
+        Invoice second = new Invoice(new String("Cliente Test"), 20.0, registry);
+        Invoice third = new Invoice(new String("  Cliente Test "), 30.0, registry);
+
+        assertEquals("Cliente Test", first.getCustomerName());
+        assertSame(first.getCustomerName(), second.getCustomerName());
+        assertSame(first.getCustomerName(), third.getCustomerName());
+        assertEquals(1, registry.size());
+        assertEquals(0, registry.idOf(" Cliente Test"));
+        assertEquals("Cliente Test", registry.nameOf(0));
+    }
+
+    @Test
+    @DisplayName("CustomerRegistry valida como Invoice y respeta su capacidad máxima")
+    void testCustomerRegistryValidationAndBound() {
+        CustomerRegistry registry = new CustomerRegistry(2);
+        assertThrows(IllegalArgumentException.class, () -> new Invoice("   ", 10.0, registry));
+        assertThrows(IllegalArgumentException.class, () -> new Invoice(null, 10.0, registry));
+        assertThrows(IllegalArgumentException.class, () -> new Invoice("Juan", -1.0, registry));
+        assertThrows(IllegalArgumentException.class, () -> new Invoice("Juan", 1.0, null));
+
+        registry.intern("Juan");
+        registry.intern("Ana");
+        assertEquals("Pedro", registry.intern(" Pedro "), "Sin espacio se devuelve el nombre recortado");
+        assertEquals(CustomerRegistry.NOT_REGISTERED, registry.idOf("Pedro"));
+        assertEquals(2, registry.size());
+
+        CustomerRegistry fewAliases = new CustomerRegistry(2, 1);
+        for (String alias : new String[] {" Juan", "Juan ", "\tJuan", "  Juan  "}) {
+            assertEquals(0, fewAliases.idOf(alias));
+        }
+        assertEquals(1, fewAliases.idOf("Ana"), "Los alias no deben ocupar el cupo de clientes");
+        assertThrows(IllegalArgumentException.class, () -> new CustomerRegistry(2, -1));
+    }
+
+    @Test
+    @DisplayName("CustomerRegistry asigna identificadores consistentes entre hilos")
+    void testCustomerRegistryConcurrentInterning() throws Exception {
+        CustomerRegistry registry = new CustomerRegistry(100);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String[]>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                results.add(executor.submit(() -> {
+                    String[] interned = new String[50];
+                    for (int i = 0; i < interned.length; i++) {
+                        interned[i] = registry.intern(" Cliente " + i);
+                    }
+                    return interned;
+                }));
+            }
+            String[] reference = results.get(0).get();
+            for (Future<String[]> result : results) {
+                String[] interned = result.get();
+                for (int i = 0; i < interned.length; i++) {
+                    assertSame(reference[i], interned[i]);
+                }
+            }
+            assertEquals(50, registry.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Invoice calcula el total exacto en centavos con redondeo bancario")
+    void testInvoiceCalculateTotalCents() {
+        assertEquals(10_000, invoice.getAmountCents());
+        assertEquals(12_100, invoice.calculateTotalCents());
+        assertEquals(60, new Invoice("Cliente", 0.50).calculateTotalCents(), "60.5 centavos redondea al par");
+        assertEquals(182, new Invoice("Cliente", 1.50).calculateTotalCents(), "181.5 centavos redondea al par");
+        assertEquals(35, new Invoice("Cliente", 0.29).calculateTotalCents());
+        assertEquals(2, new Invoice("Cliente", 0.025).getAmountCents(), "2.5 centavos redondea al par");
+        assertEquals(4, new Invoice("Cliente", 0.035).getAmountCents(), "3.5 centavos redondea al par");
+        assertThrows(IllegalArgumentException.class, () -> new Invoice("Cliente", Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> new Invoice("Cliente", Double.POSITIVE_INFINITY));
+        Invoice huge = new Invoice("Cliente", 1e18);
+        assertEquals(1e18 * Invoice.TAX_RATE, huge.calculateTotal());
+        assertThrows(IllegalArgumentException.class, huge::getAmountCents);
+    }
+
+    @Test
+    @DisplayName("Invoice.ofCents crea facturas exactas y valida igual que el constructor")
+    void testInvoiceOfCents() {
+        Invoice exact = Invoice.ofCents("  Cliente ", 18_150);
+        assertEquals("Cliente", exact.getCustomerName());
+        assertEquals(181.5, exact.getAmount());
+        assertEquals(21_962, exact.calculateTotalCents());
+        assertThrows(IllegalArgumentException.class, () -> Invoice.ofCents("Cliente", -1));
+        assertThrows(IllegalArgumentException.class, () -> Invoice.ofCents(" ", 100));
+        assertThrows(ArithmeticException.class, () -> Invoice.ofCents("Cliente", Long.MAX_VALUE).calculateTotalCents());
+    }
+
+    @Test
+    @DisplayName("InvoiceAggregator en paralelo coincide exactamente con la agregación secuencial")
+    void testInvoiceAggregatorParallelMatchesSequential() {
+        List<Invoice> invoices = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            invoices.add(new Invoice("Cliente " + (i % 37), (i % 997) / 100.0));
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            CustomerTotals sequential = InvoiceAggregator.aggregateSequential(invoices);
+            CustomerTotals parallel = new InvoiceAggregator(pool, 512).aggregate(invoices);
+
+            assertEquals(37, parallel.size());
+            assertEquals(sequential, parallel);
+            assertEquals(sequential.toMap(), parallel.toMap());
+
+            long expectedCents = 0;
+            for (Invoice single : invoices) {
+                if (single.getCustomerName().equals("Cliente 5")) {
+                    expectedCents += single.calculateTotalCents();
+                }
+            }
+            assertEquals(expectedCents, parallel.totalCents("Cliente 5"));
+            assertEquals(541, parallel.invoiceCount("Cliente 5"));
+            assertEquals(0, parallel.totalCents("Pedro"));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("InvoiceAggregator rechaza entradas nulas")
+    void testInvoiceAggregatorRejectsNulls() {
+        InvoiceAggregator aggregator = new InvoiceAggregator();
+        assertThrows(IllegalArgumentException.class, () -> aggregator.aggregate(null));
+        assertThrows(IllegalArgumentException.class, () -> aggregator.aggregate(Arrays.asList(invoice, null)));
+        assertEquals(12_100, aggregator.aggregate(new LinkedList<>(List.of(invoice))).totalCents("Cliente Test"));
+    }
 }